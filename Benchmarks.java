@@ -0,0 +1,414 @@
+/*----------------------------------------------------------------
+ *  Author:   Kayleigh Crosby
+ *  Email:    kacros23@g.holycross.edu
+ *  Written:  10/17/2026
+ *
+ *  Benchmarks times the game's hot paths, and measures how much
+ *  memory each one allocates.
+ *
+ *  Example: java Benchmarks # run every benchmark
+ *
+ *  Example: java Benchmarks flood # only the benchmarks named flood...
+ *
+ *  Example: java Benchmarks deploy 10 500 # 10 iterations of 500 ms each
+ *
+ *----------------------------------------------------------------*/
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+/**
+ * The <i>Benchmarks</i> program measures the code that a game spends its time
+ * in: deploying mines, computing neighbor counts, the flood reveal of a zero
+ * cell that a click sets off, painting cells, and loading, saving, and
+ * inserting leaderboard scores. The board benchmarks are run for each combination of
+ * board size and mine density (the easy, medium, and hard densities of the
+ * default 20x30 board).
+ *
+ * Each benchmark is run for a few untimed warmup iterations, so the JIT
+ * compiler has done its work, then for several measured iterations of a
+ * fixed length. For each one, the mean time per operation is printed with its
+ * 99.9% confidence interval, along with the bytes allocated per operation, as
+ * counted by the JVM for the benchmark's thread. Work handed to other threads
+ * (e.g. the parallel bands of computeNeighborCounts()) is timed, but its
+ * allocations are not counted.
+ *
+ * Benchmarks that change their state (e.g. a flood reveal, which can't reveal
+ * the same cells twice) get fresh state for every operation, made outside
+ * the timed part. The rest repeat the operation on the same state.
+ */
+public class Benchmarks {
+
+    // Board sizes, as { rows, cols }.
+    private static final int[][] SIZES = { { 20, 30 }, { 200, 300 }, { 2000, 3000 } };
+
+    // Mine counts on the default board, for each difficulty.
+    private static final String[] DIFFICULTIES = { "easy", "medium", "hard" };
+
+    // Cell sizes for the painting benchmark, in pixels.
+    private static final int[] CELL_SIZES = { BoardWidget.MIN_CELL_SIZE, Cell.SIZE, BoardWidget.MAX_CELL_SIZE };
+
+    // Results of every operation are folded into this, so that the JIT
+    // compiler can't throw the work away.
+    private static volatile long sink;
+
+    /**
+     * A single benchmark: an operation to time, and the state it needs.
+     */
+    private abstract static class Benchmark {
+        final String name;
+        final boolean freshState;
+
+        /**
+         * @param name the name of the benchmark, with its parameters.
+         * @param freshState true if each operation needs new state from
+         * setup(), or false to call setup() once and reuse its state.
+         */
+        Benchmark(String name, boolean freshState) {
+            this.name = name;
+            this.freshState = freshState;
+        }
+
+        /**
+         * Make the state for an operation. This is not timed.
+         */
+        abstract Object setup();
+
+        /**
+         * Do one operation on the state, and return any value it computes.
+         */
+        abstract long run(Object state);
+
+        /**
+         * Release the state when it is no longer needed, e.g. close its
+         * files. This is not timed.
+         */
+        void teardown(Object state) {
+        }
+    }
+
+    /**
+     * A board, and the cell to click on it.
+     */
+    private static class Click {
+        final Board board;
+        final long cell;
+
+        Click(Board board, long cell) {
+            this.board = board;
+            this.cell = cell;
+        }
+    }
+
+    // The thread allocation counter, or null if this JVM doesn't have one.
+    private static final com.sun.management.ThreadMXBean threads = allocationCounter();
+
+    /**
+     * The main() program for the benchmarks. The optional arguments are a
+     * word to choose which benchmarks to run (those whose names start with
+     * it), the number of measured iterations (default 5), and the length of
+     * each iteration in milliseconds (default 1000).
+     */
+    public static void main(String args[]) {
+        String filter = args.length >= 1 ? args[0] : "";
+        int iterations = args.length >= 2 ? Integer.parseInt(args[1]) : 5;
+        long millis = args.length >= 3 ? Long.parseLong(args[2]) : 1000;
+        int warmups = 3;
+
+        if (threads == null)
+            System.out.println("Allocation counting is not supported by this JVM.");
+        System.out.printf("%-40s %14s %12s %14s%n", "Benchmark", "ns/op", "error", "B/op");
+        try {
+            for (Benchmark b : benchmarks()) {
+                if (!b.name.startsWith(filter))
+                    continue;
+                measure(b, warmups, iterations, millis * 1_000_000L);
+            }
+        } finally {
+            deleteScratchDirectory();
+        }
+    }
+
+    // A temporary directory for files the benchmarks write, made the first
+    // time it is asked for, or null if there isn't one yet.
+    private static Path scratch;
+
+    // Get the scratch directory, making it the first time with a
+    // leaderboard.dat of made-up scores in it, for the first load to import.
+    private static String scratchDirectory() {
+        if (scratch == null) {
+            try {
+                scratch = Files.createTempDirectory("minesweeper-bench");
+                List<String> lines = new ArrayList<>();
+                for (String difficulty : DIFFICULTIES)
+                    for (int k = 0; k < Leaderboard.MAX_NUM_SCORES; k++)
+                        lines.add(difficulty + " " + (10 + k) + " player" + k);
+                Files.write(scratch.resolve(Leaderboard.DATA_FILE), lines);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return scratch.toString();
+    }
+
+    // Delete the scratch directory and everything in it, if it was made.
+    private static void deleteScratchDirectory() {
+        if (scratch == null)
+            return;
+        try (Stream<Path> paths = Files.walk(scratch)) {
+            for (Path p : paths.sorted(Comparator.reverseOrder()).toList())
+                Files.deleteIfExists(p);
+        } catch (IOException e) {
+            System.out.println("Can't delete " + scratch + ": " + e.getMessage());
+        }
+        scratch = null;
+    }
+
+    // Make every benchmark, with all of its parameters.
+    private static List<Benchmark> benchmarks() {
+        List<Benchmark> list = new ArrayList<>();
+        for (int[] size : SIZES) {
+            for (String difficulty : DIFFICULTIES) {
+                int rows = size[0];
+                int cols = size[1];
+                int mines = Minesweeper.minesFor(difficulty, rows, cols);
+                String params = "(" + rows + "x" + cols + ", " + difficulty + ")";
+
+                list.add(new Benchmark("deployMines" + params, true) {
+                    long seed = 0;
+                    Object setup() {
+                        return new Board(rows, cols);
+                    }
+                    long run(Object state) {
+                        Board board = (Board)state;
+                        board.deployMines(mines, new SplittableRandom(seed++));
+                        return board.getNumMines();
+                    }
+                });
+
+                list.add(new Benchmark("computeNeighborCounts" + params, false) {
+                    Object setup() {
+                        return boardWithMines(rows, cols, mines, 1);
+                    }
+                    long run(Object state) {
+                        Board board = (Board)state;
+                        board.computeNeighborCounts();
+                        return board.getNeighborMineCount(rows/2, cols/2);
+                    }
+                });
+
+                list.add(new Benchmark("floodReveal" + params, true) {
+                    long seed = 0;
+                    Object setup() {
+                        Board board = boardWithMines(rows, cols, mines, seed++);
+                        return new Click(board, zeroCell(board));
+                    }
+                    long run(Object state) {
+                        Click click = (Click)state;
+                        return click.board.floodReveal(CellQueue.rowOf(click.cell),
+                                                       CellQueue.colOf(click.cell));
+                    }
+                });
+            }
+        }
+
+        for (int cellSize : CELL_SIZES) {
+            list.add(new Benchmark("cellPaint(" + cellSize + "px)", false) {
+                // Paints every cell of a board with all kinds of tiles.
+                Board board;
+                Cell cell;
+                Graphics2D g;
+                int rows, cols, next = 0;
+                Object setup() {
+                    board = boardWithMines(20, 30, 100, 1);
+                    long cell0 = zeroCell(board);
+                    board.floodReveal(CellQueue.rowOf(cell0), CellQueue.colOf(cell0));
+                    board.makeFlag(0, 0);
+                    rows = board.getNumRows();
+                    cols = board.getNumCols();
+                    cell = new Cell(board);
+                    BufferedImage image = new BufferedImage(cols * cellSize, rows * cellSize,
+                                                            BufferedImage.TYPE_INT_RGB);
+                    g = image.createGraphics();
+                    return board;
+                }
+                long run(Object state) {
+                    int r = next / cols;
+                    int c = next % cols;
+                    next = (next + 1) % (rows * cols);
+                    cell.moveTo(r, c, c * cellSize, r * cellSize, cellSize);
+                    cell.paint(g);
+                    return next;
+                }
+            });
+        }
+
+        // The leaderboard benchmarks keep their files in a scratch directory,
+        // so they never touch the real scores. Each load gets a new
+        // leaderboard, as the game does.
+        list.add(new Benchmark("leaderboardLoad", true) {
+            Object setup() {
+                return new Leaderboard(false, scratchDirectory());
+            }
+            long run(Object state) {
+                Leaderboard board = (Leaderboard)state;
+                board.load();
+                return board.getNumPlayerScores("easy");
+            }
+            void teardown(Object state) {
+                ((Leaderboard)state).closeLog();
+            }
+        });
+
+        list.add(new Benchmark("leaderboardSave", false) {
+            // Saves after each score, as the game does at the end of a game.
+            // The save syncs the log, starts compacting it, and writes the
+            // histories.
+            SplittableRandom rng = new SplittableRandom(1);
+            Object setup() {
+                Leaderboard board = new Leaderboard(false, scratchDirectory());
+                board.load();
+                return board;
+            }
+            long run(Object state) {
+                Leaderboard board = (Leaderboard)state;
+                int rank = board.insert(DIFFICULTIES[rng.nextInt(3)], "bench", rng.nextInt(1000));
+                board.save();
+                return rank;
+            }
+            void teardown(Object state) {
+                ((Leaderboard)state).closeLog();
+            }
+        });
+
+        list.add(new Benchmark("leaderboardInsert", false) {
+            SplittableRandom rng = new SplittableRandom(1);
+            Object setup() {
+                return new Leaderboard(false, scratchDirectory());
+            }
+            long run(Object state) {
+                Leaderboard board = (Leaderboard)state;
+                return board.insert(DIFFICULTIES[rng.nextInt(3)], "bench", rng.nextInt(1000));
+            }
+        });
+
+        return list;
+    }
+
+    // Run one benchmark and print its results.
+    private static void measure(Benchmark b, int warmups, int iterations, long nanosPerIteration) {
+        Object shared = b.freshState ? null : b.setup();
+        double[] nanosPerOp = new double[iterations];
+        long totalOps = 0, totalBytes = 0;
+        for (int i = -warmups; i < iterations; i++) {
+            long ops = 0, nanos = 0, bytes = 0;
+            if (b.freshState) {
+                // Time each operation on its own, leaving out the setup. The
+                // iteration's length includes the setup, which can be much
+                // slower than the operation itself.
+                long end = System.nanoTime() + nanosPerIteration;
+                while (ops == 0 || System.nanoTime() - end < 0) {
+                    Object state = b.setup();
+                    long a0 = allocatedBytes();
+                    long t0 = System.nanoTime();
+                    sink += b.run(state);
+                    long t1 = System.nanoTime();
+                    bytes += allocatedBytes() - a0;
+                    nanos += t1 - t0;
+                    ops++;
+                    b.teardown(state);
+                }
+            } else {
+                // Time batches of operations, doubling the batch size until
+                // the iteration is long enough.
+                long batch = 1;
+                while (nanos < nanosPerIteration) {
+                    long a0 = allocatedBytes();
+                    long t0 = System.nanoTime();
+                    for (long k = 0; k < batch; k++)
+                        sink += b.run(shared);
+                    long t1 = System.nanoTime();
+                    bytes += allocatedBytes() - a0;
+                    nanos += t1 - t0;
+                    ops += batch;
+                    if (t1 - t0 < nanosPerIteration / 16)
+                        batch *= 2;
+                }
+            }
+            if (i >= 0) {
+                nanosPerOp[i] = (double)nanos / ops;
+                totalOps += ops;
+                totalBytes += bytes;
+            }
+        }
+
+        if (shared != null)
+            b.teardown(shared);
+
+        double mean = 0;
+        for (double x : nanosPerOp)
+            mean += x;
+        mean /= iterations;
+        double var = 0;
+        for (double x : nanosPerOp)
+            var += (x - mean) * (x - mean);
+        double error = iterations > 1
+            ? 3.29 * Math.sqrt(var / (iterations - 1) / iterations) // 99.9%, normal
+            : Double.NaN;
+        String bytes = threads == null ? "?" : String.format("%.1f", (double)totalBytes / totalOps);
+        System.out.printf("%-40s %14.1f %12s %14s%n", b.name, mean,
+                          "+- " + String.format("%.1f", error), bytes);
+    }
+
+    // A board with the given mines, deployed from the given seed.
+    private static Board boardWithMines(int rows, int cols, int mines, long seed) {
+        Board board = new Board(rows, cols);
+        board.deployMines(mines, new SplittableRandom(seed));
+        return board;
+    }
+
+    // A hidden cell with no neighboring mines, the kind of cell whose click
+    // reveals a whole region, packed as in CellQueue.pack(). If there is
+    // none, any hidden cell without a mine.
+    private static long zeroCell(Board board) {
+        long any = -1;
+        for (int r = 0; r < board.getNumRows(); r++) {
+            for (int c = 0; c < board.getNumCols(); c++) {
+                if (board.isMine(r, c) || board.isRevealed(r, c))
+                    continue;
+                if (board.getNeighborMineCount(r, c) == 0)
+                    return CellQueue.pack(r, c);
+                if (any == -1)
+                    any = CellQueue.pack(r, c);
+            }
+        }
+        return any;
+    }
+
+    // Bytes allocated so far by the current thread, or 0 if unknown.
+    private static long allocatedBytes() {
+        return threads == null ? 0 : threads.getCurrentThreadAllocatedBytes();
+    }
+
+    // Get the JVM's thread allocation counter, turned on, or null.
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean))
+            return null;
+        com.sun.management.ThreadMXBean t =
+            (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+        if (!t.isThreadAllocatedMemorySupported())
+            return null;
+        t.setThreadAllocatedMemoryEnabled(true);
+        return t;
+    }
+}
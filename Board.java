@@ -0,0 +1,915 @@
+/*----------------------------------------------------------------
+ *  Author:   Kayleigh Crosby
+ *  Email:    kacros23@g.holycross.edu
+ *  Written:  10/17/2026
+ *
+ *  Board holds the state of a minesweeper grid without any GUI.
+ *  Game and Cell are views over a Board, and headless code (tests,
+ *  simulations) can use a Board on its own.
+ *----------------------------------------------------------------*/
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.random.RandomGenerator;
+
+/**
+ * A <i>Board</i> object stores the complete state of a minesweeper grid: where
+ * the mines are, which cells have been revealed or flagged, and how many mines
+ * neighbor each cell. Instead of one object per cell, the mine, revealed, and
+ * flag states are packed into bitsets (one bit per cell, 64 cells per long),
+ * and the neighbor counts are kept in byte arrays. A 20x30 board being played
+ * takes about two kilobytes this way, so thousands of boards fit comfortably
+ * in one JVM.
+ *
+ * Cells are addressed by row and column. Internally, cell (row, col) is stored
+ * at the long index row * numCols + col, and all storage is split into chunks
+ * of CHUNK_SIZE cells, or a single chunk just big enough for the board if it
+ * has fewer cells than that. A chunk is only allocated the first time
+ * something in it is set, so a 10,000 x 10,000 board costs little more than the cells that
+ * have actually been touched, and no operation other than the bulk ones has
+ * to walk the whole board.
+ */
+public class Board {
+
+    /**
+     * Number of cells in each storage chunk, as a power of two.
+     */
+    public static final int CHUNK_BITS = 16;
+
+    /**
+     * Number of cells in each storage chunk.
+     */
+    public static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+    /**
+     * The button for a click that reveals a cell, see click().
+     */
+    public static final int LEFT = 0;
+
+    /**
+     * The button for a click that plants or removes a flag, see click().
+     */
+    public static final int RIGHT = 1;
+
+    /**
+     * First click safety modes, see setFirstClickSafe(). With SAFE_NONE the
+     * first click can hit a mine, with SAFE_CELL it can't, and with
+     * SAFE_AREA none of the cells around it hold mines either, so it always
+     * opens a region.
+     */
+    public static final int SAFE_NONE = 0, SAFE_CELL = 1, SAFE_AREA = 2;
+
+    // Random tries at finding a free cell for a moved mine, before falling
+    // back to scanning for one.
+    private static final int RELOCATE_TRIES = 64;
+
+    // Number of longs in one chunk of a bitset.
+    private static final int CHUNK_WORDS = CHUNK_SIZE / 64;
+
+    // Boards with at least this many cells have their neighbor counts
+    // computed in bulk by deployMines(), if the mines are dense enough.
+    private static final long BULK_MIN_CELLS = 1L << 20;
+
+    // computeNeighborCounts() splits the board into bands of rows, with each
+    // band holding roughly this many cells.
+    private static final long BAND_CELLS = 1L << 18;
+
+    // Dimensions of the grid.
+    private final int numRows;
+    private final int numCols;
+    private final long numCells;
+
+    // Number of cells each chunk is allocated with: CHUNK_SIZE, or for a
+    // board smaller than that, its number of cells rounded up to a word.
+    private final int chunkCells;
+
+    // One bit per cell: whether the cell holds a mine, has been revealed, or
+    // has a flag planted on it. Each is an array of chunks, where a null
+    // chunk means all of its bits are zero.
+    private final long[][] mines;
+    private final long[][] revealed;
+    private final long[][] flags;
+
+    // Number of neighboring mines, for each cell, in chunks. A null chunk
+    // means all of its counts are zero.
+    private final byte[][] counts;
+
+    // Set by revealAll(), so the end of a game doesn't have to touch every
+    // chunk of a huge board.
+    private boolean allRevealed = false;
+
+    private int numMines = 0;     // number of mines deployed
+    private long numRevealed = 0; // number of cells revealed so far
+    private int numFlags = 0;     // number of flags planted
+
+    // First click safety mode, and the seed for choosing where mines are
+    // moved to.
+    private int safeMode = SAFE_NONE;
+    private long safeSeed = 0;
+
+    // Whether the game on this board has been lost (a mine was revealed) or
+    // won (every other cell was revealed).
+    private boolean lost = false;
+    private boolean won = false;
+
+    // Listeners to tell about changes, see BoardListener.
+    private BoardListener[] listeners = new BoardListener[0];
+
+    // Work queue for floodReveal(), holding (row, col) pairs in a ring
+    // buffer. It is kept between calls so that a reveal does not allocate,
+    // and only grows if a region is larger than any seen before.
+    private int[] queue = new int[256];
+
+    /**
+     * Initialize an empty board with the given dimensions. No mines are
+     * deployed and all cells are hidden.
+     * @param numRows number of cells tall the board will be.
+     * @param numCols number of cells wide the board will be.
+     */
+    public Board(int numRows, int numCols) {
+        if (numRows <= 0 || numCols <= 0)
+            throw new IllegalArgumentException("board must be at least 1x1");
+        this.numRows = numRows;
+        this.numCols = numCols;
+        this.numCells = (long)numRows * numCols;
+        long chunks = (numCells + CHUNK_SIZE - 1) >>> CHUNK_BITS;
+        if (chunks > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("board is too large: " + numRows + "x" + numCols);
+        this.chunkCells = (int)Math.min(CHUNK_SIZE, (numCells + 63) & ~63L);
+        mines = new long[(int)chunks][];
+        revealed = new long[(int)chunks][];
+        flags = new long[(int)chunks][];
+        counts = new byte[(int)chunks][];
+    }
+
+    /**
+     * Get the most bytes of memory the cells of a board of the given size can
+     * take, once every chunk of its storage is allocated. This leaves out the
+     * Board object itself, which is the same for every size.
+     */
+    public static long storageBytes(int numRows, int numCols) {
+        long numCells = (long)numRows * numCols;
+        long chunks = (numCells + CHUNK_SIZE - 1) >>> CHUNK_BITS;
+        long chunkCells = Math.min(CHUNK_SIZE, (numCells + 63) & ~63L);
+        // Three bitsets and the counts, each an array of chunks, where every
+        // array has a 16 byte header and each chunk reference takes 4 bytes.
+        long perChunk = 3 * (16 + chunkCells / 8) + 16 + chunkCells;
+        return 4 * (16 + 4 * chunks) + chunks * perChunk;
+    }
+
+    /**
+     * Get the number of rows in the board.
+     */
+    public int getNumRows() {
+        return numRows;
+    }
+
+    /**
+     * Get the number of columns in the board.
+     */
+    public int getNumCols() {
+        return numCols;
+    }
+
+    /**
+     * Get the total number of cells in the board.
+     */
+    public long getNumCells() {
+        return numCells;
+    }
+
+    /**
+     * Get the number of mines that are deployed.
+     */
+    public int getNumMines() {
+        return numMines;
+    }
+
+    /**
+     * Get the number of cells that have been revealed.
+     */
+    public long getNumRevealed() {
+        return numRevealed;
+    }
+
+    /**
+     * Get the number of flags that are planted.
+     */
+    public int getNumFlags() {
+        return numFlags;
+    }
+
+    /**
+     * Get the number of hidden cells remaining to be revealed.
+     */
+    public long getNumCellsRemaining() {
+        return numCells - numRevealed;
+    }
+
+    /**
+     * Returns true if a mine has been revealed.
+     */
+    public boolean isLost() {
+        return lost;
+    }
+
+    /**
+     * Returns true if every cell without a mine has been revealed, and no
+     * mine has.
+     */
+    public boolean isWon() {
+        return won;
+    }
+
+    /**
+     * Returns true if the game on this board has been won or lost.
+     */
+    public boolean isGameOver() {
+        return won || lost;
+    }
+
+    /**
+     * Register a listener to be told about changes to the board.
+     */
+    public void addListener(BoardListener listener) {
+        listeners = Arrays.copyOf(listeners, listeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+    }
+
+    /**
+     * Stop telling the given listener about changes to the board.
+     */
+    public void removeListener(BoardListener listener) {
+        for (int k = 0; k < listeners.length; k++) {
+            if (listeners[k] == listener) {
+                BoardListener[] fewer = new BoardListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, fewer, 0, k);
+                System.arraycopy(listeners, k + 1, fewer, k, fewer.length - k);
+                listeners = fewer;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns true if (row, col) is inside the board.
+     */
+    public boolean inBounds(int row, int col) {
+        return row >= 0 && row < numRows && col >= 0 && col < numCols;
+    }
+
+    /**
+     * Returns true if a mine is hidden in the given cell.
+     */
+    public boolean isMine(int row, int col) {
+        return get(mines, index(row, col));
+    }
+
+    /**
+     * Returns true if the given cell has been revealed.
+     */
+    public boolean isRevealed(int row, int col) {
+        return allRevealed || get(revealed, index(row, col));
+    }
+
+    /**
+     * Returns true if a flag is planted on the given cell.
+     */
+    public boolean isFlag(int row, int col) {
+        return get(flags, index(row, col));
+    }
+
+    /**
+     * Returns the number of mines in the (up to eight) cells around the given
+     * cell.
+     */
+    public int getNeighborMineCount(int row, int col) {
+        return count(index(row, col));
+    }
+
+    /**
+     * Set the neighbor mine count of the given cell. Normally the counts are
+     * kept up to date by plantMine(), so this is only needed when loading a
+     * board from somewhere else.
+     */
+    public void setNeighborMineCount(int row, int col, int count) {
+        long i = index(row, col);
+        byte[] chunk = countChunk(i);
+        chunk[(int)i & (CHUNK_SIZE-1)] = (byte)count;
+        fireCellChanged(row, col);
+    }
+
+    /**
+     * Hide a mine in the given cell, and increment the neighbor mine count of
+     * each of the cells around it. Returns false, and does nothing, if the cell
+     * already holds a mine.
+     */
+    public boolean plantMine(int row, int col) {
+        long i = index(row, col);
+        if (get(mines, i))
+            return false;
+        set(mines, i);
+        numMines++;
+        for (int r = row-1; r <= row+1; r++) {
+            if (r < 0 || r >= numRows)
+                continue;
+            for (int c = col-1; c <= col+1; c++) {
+                if (c < 0 || c >= numCols || (r == row && c == col))
+                    continue;
+                long j = (long)r * numCols + c;
+                countChunk(j)[(int)j & (CHUNK_SIZE-1)]++;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Make the first LEFT click() on this board safe: if it would reveal a
+     * mine (or, with SAFE_AREA, if any cell around it holds one), those mines
+     * are first moved to random cells outside the area that hold no mine, and
+     * only the neighbor counts around the old and new places are patched.
+     * Where the mines go depends only on the seed and the cell clicked, so a
+     * game replayed with the same seed and clicks comes out the same. If
+     * there is no room outside the area, SAFE_AREA falls back to SAFE_CELL.
+     * @param mode SAFE_NONE, SAFE_CELL, or SAFE_AREA.
+     * @param seed the seed for choosing where mines are moved, e.g. the one
+     * the mines were deployed from.
+     */
+    public void setFirstClickSafe(int mode, long seed) {
+        if (mode != SAFE_NONE && mode != SAFE_CELL && mode != SAFE_AREA)
+            throw new IllegalArgumentException("no such mode: " + mode);
+        this.safeMode = mode;
+        this.safeSeed = seed;
+    }
+
+    /**
+     * Get the first click safety mode, see setFirstClickSafe().
+     */
+    public int getFirstClickSafe() {
+        return safeMode;
+    }
+
+    /**
+     * Get the seed for moving mines away from the first click.
+     */
+    public long getFirstClickSeed() {
+        return safeSeed;
+    }
+
+    /**
+     * Deploy exactly the given number of mines at distinct cells, chosen
+     * uniformly at random using rng. This uses Floyd's sampling algorithm, with
+     * the mine bitset itself as the set of cells already chosen, so it takes
+     * time proportional to the number of mines no matter how dense they are,
+     * and needs no extra memory. The same rng seed always gives the same mines.
+     * On large boards with many mines, the neighbor counts are computed
+     * afterwards in one bulk pass instead of one mine at a time.
+     * @param count the number of mines to deploy.
+     * @param rng the source of randomness, e.g. a SplittableRandom.
+     */
+    public void deployMines(int count, RandomGenerator rng) {
+        if (numMines != 0)
+            throw new IllegalStateException("mines are already deployed");
+        if (count < 0 || count > numCells)
+            throw new IllegalArgumentException("can't deploy " + count + " mines on " + numCells + " cells");
+        boolean bulk = isBulk(count);
+        for (long j = numCells - count; j < numCells; j++) {
+            long t = rng.nextLong(j + 1);
+            if (get(mines, t))
+                t = j; // t was already chosen, but j can't have been
+            placeMine(t, bulk);
+        }
+        if (bulk)
+            computeNeighborCounts();
+    }
+
+    /**
+     * Deploy the mines where a MineOracle says they are, in time proportional
+     * to the number of mines, with the neighbor counts computed in bulk as in
+     * deployMines() when that is faster.
+     * @throws IllegalArgumentException if the oracle is for a board of
+     * another size.
+     */
+    public void deployMines(MineOracle oracle) {
+        if (numMines != 0)
+            throw new IllegalStateException("mines are already deployed");
+        if (oracle.getNumRows() != numRows || oracle.getNumCols() != numCols)
+            throw new IllegalArgumentException("oracle is for a " + oracle.getNumRows() + "x"
+                                               + oracle.getNumCols() + " board");
+        int count = oracle.getNumMines();
+        boolean bulk = isBulk(count);
+        for (int k = 0; k < count; k++) {
+            long cell = oracle.getMine(k);
+            placeMine((long)CellQueue.rowOf(cell) * numCols + CellQueue.colOf(cell), bulk);
+        }
+        if (bulk)
+            computeNeighborCounts();
+    }
+
+    // The bulk pass reads every word of the board, so it only pays off when
+    // there are enough mines to make the per-mine updates costlier.
+    private boolean isBulk(int count) {
+        return numCells >= BULK_MIN_CELLS && count >= numCells / 512;
+    }
+
+    // Place a mine at cell index t, leaving the counts for a bulk pass or
+    // updating them now.
+    private void placeMine(long t, boolean bulk) {
+        if (bulk) {
+            set(mines, t);
+            numMines++;
+        } else {
+            plantMine((int)(t / numCols), (int)(t % numCols));
+        }
+    }
+
+    /**
+     * Recompute the neighbor mine count of every cell from the mine bitset.
+     * The result is the same as planting each mine with plantMine(), but the
+     * work is done a word (64 cells) at a time: for each row, the eight
+     * neighbor bit-vectors are the rows above, at, and below it, shifted left
+     * and right by one column, and they are added together with bitwise full
+     * adders into four bit-planes holding each cell's count. The rows are
+     * split into bands which are computed in parallel on the common
+     * ForkJoinPool.
+     */
+    public void computeNeighborCounts() {
+        for (int k = 0; k < counts.length; k++)
+            counts[k] = null;
+        int bandRows = (int)Math.max(1, BAND_CELLS / numCols);
+        ForkJoinPool.commonPool().invoke(new CountTask(0, numRows, bandRows));
+    }
+
+    // Computes the neighbor counts for rows [lo, hi), splitting the range in
+    // half until it is at most bandRows rows. It is never serialized, even
+    // though RecursiveAction is Serializable.
+    @SuppressWarnings("serial")
+    private class CountTask extends RecursiveAction {
+        private final int lo, hi, bandRows;
+
+        CountTask(int lo, int hi, int bandRows) {
+            this.lo = lo;
+            this.hi = hi;
+            this.bandRows = bandRows;
+        }
+
+        protected void compute() {
+            if (hi - lo <= bandRows) {
+                countRows(lo, hi);
+            } else {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new CountTask(lo, mid, bandRows), new CountTask(mid, hi, bandRows));
+            }
+        }
+    }
+
+    // Compute the neighbor counts for rows [lo, hi) from the mine bitset.
+    private void countRows(int lo, int hi) {
+        int words = (numCols + 63) >>> 6;
+        long[] above = new long[words];
+        long[] row = new long[words];
+        long[] below = new long[words];
+        if (lo > 0)
+            rowBits(mines, lo - 1, above);
+        rowBits(mines, lo, row);
+        for (int r = lo; r < hi; r++) {
+            if (r + 1 < numRows)
+                rowBits(mines, r + 1, below);
+            else
+                Arrays.fill(below, 0L);
+
+            for (int w = 0; w < words; w++) {
+                // The bit from the neighboring word that shifts into this one.
+                long a = above[w], s = row[w], b = below[w];
+                long aIn = w > 0 ? above[w-1] >>> 63 : 0;
+                long sIn = w > 0 ? row[w-1] >>> 63 : 0;
+                long bIn = w > 0 ? below[w-1] >>> 63 : 0;
+                long aOut = w + 1 < words ? above[w+1] << 63 : 0;
+                long sOut = w + 1 < words ? row[w+1] << 63 : 0;
+                long bOut = w + 1 < words ? below[w+1] << 63 : 0;
+
+                // The eight neighbors of each cell, one bit per cell.
+                long n1 = a, n2 = (a << 1) | aIn, n3 = (a >>> 1) | aOut;
+                long n4 = (s << 1) | sIn, n5 = (s >>> 1) | sOut;
+                long n6 = b, n7 = (b << 1) | bIn, n8 = (b >>> 1) | bOut;
+
+                // Add them up with full and half adders.
+                long s0 = n1 ^ n2 ^ n3, c0 = (n1 & n2) | (n3 & (n1 ^ n2));
+                long s1 = n4 ^ n5 ^ n6, c1 = (n4 & n5) | (n6 & (n4 ^ n5));
+                long s2 = n7 ^ n8, c2 = n7 & n8;
+                long bit0 = s0 ^ s1 ^ s2, c3 = (s0 & s1) | (s2 & (s0 ^ s1));
+                long t = c0 ^ c1 ^ c2, d1 = (c0 & c1) | (c2 & (c0 ^ c1));
+                long bit1 = t ^ c3, d2 = t & c3;
+                long bit2 = d1 ^ d2, bit3 = d1 & d2;
+
+                long any = bit0 | bit1 | bit2 | bit3;
+                if (w == words - 1 && (numCols & 63) != 0)
+                    any &= (1L << numCols) - 1; // ignore bits past the last column
+                while (any != 0) {
+                    int k = Long.numberOfTrailingZeros(any);
+                    any &= any - 1;
+                    int count = (int)((bit0 >>> k) & 1)
+                        | (int)((bit1 >>> k) & 1) << 1
+                        | (int)((bit2 >>> k) & 1) << 2
+                        | (int)((bit3 >>> k) & 1) << 3;
+                    long i = (long)r * numCols + (w << 6) + k;
+                    sharedCountChunk(i)[(int)i & (CHUNK_SIZE-1)] = (byte)count;
+                }
+            }
+
+            long[] tmp = above;
+            above = row;
+            row = below;
+            below = tmp;
+        }
+    }
+
+    // Copy the bits of one row of a chunked bitset into dst, so that column c
+    // is bit (c % 64) of dst[c / 64]. Bits past the last column are zero.
+    private void rowBits(long[][] bits, int row, long[] dst) {
+        long start = (long)row * numCols;
+        for (int w = 0; w < dst.length; w++) {
+            long pos = start + ((long)w << 6);
+            int off = (int)(pos & 63);
+            long v = word(bits, pos >>> 6) >>> off;
+            if (off != 0)
+                v |= word(bits, (pos >>> 6) + 1) << (64 - off);
+            dst[w] = v;
+        }
+        if ((numCols & 63) != 0)
+            dst[dst.length - 1] &= (1L << numCols) - 1;
+    }
+
+    // Get word w of a chunked bitset, or zero if it is past the end or was
+    // never allocated.
+    private static long word(long[][] bits, long w) {
+        int k = (int)(w >>> (CHUNK_BITS - 6));
+        if (k >= bits.length || bits[k] == null)
+            return 0;
+        int j = (int)w & (CHUNK_WORDS-1);
+        return j < bits[k].length ? bits[k][j] : 0;
+    }
+
+    // Like countChunk(), but safe to call from several CountTasks at once.
+    // Bands that meet in the middle of a chunk share it, each writing only
+    // its own cells.
+    private byte[] sharedCountChunk(long i) {
+        int k = (int)(i >>> CHUNK_BITS);
+        byte[] chunk = counts[k];
+        if (chunk == null) {
+            synchronized (counts) {
+                chunk = counts[k];
+                if (chunk == null)
+                    chunk = counts[k] = new byte[chunkCells];
+            }
+        }
+        return chunk;
+    }
+
+    /**
+     * Reveal the given cell. Returns true if the cell was hidden before, or
+     * false if it had already been revealed. Revealing a mine loses the game,
+     * and revealing the last cell without a mine wins it.
+     */
+    public boolean reveal(int row, int col) {
+        long i = index(row, col);
+        if (allRevealed || get(revealed, i))
+            return false;
+        set(revealed, i);
+        numRevealed++;
+        fireCellChanged(row, col);
+        if (get(mines, i)) {
+            if (!isGameOver()) {
+                lost = true;
+                fireGameOver(false);
+            }
+        } else {
+            checkWon();
+        }
+        return true;
+    }
+
+    /**
+     * Reveal the given cell and, if it has no neighboring mines, the whole
+     * connected region of empty cells around it together with the numbered
+     * cells bordering that region. Flagged cells are left alone. Each cell is
+     * visited at most once, so the cost depends on the size of the region that
+     * is opened, not on the size of the board.
+     * @return the number of cells that were revealed by this call.
+     */
+    public long floodReveal(int row, int col) {
+        if (!reveal(row, col))
+            return 0;
+        long n = 1;
+        if (isMine(row, col) || getNeighborMineCount(row, col) != 0)
+            return n;
+
+        int mask = queue.length - 1;
+        int head = 0, tail = 0;
+        queue[tail] = row;
+        queue[tail+1] = col;
+        tail = 2;
+        while (head != tail) {
+            int r0 = queue[head];
+            int c0 = queue[head+1];
+            head = (head + 2) & mask;
+            for (int r = r0-1; r <= r0+1; r++) {
+                if (r < 0 || r >= numRows)
+                    continue;
+                for (int c = c0-1; c <= c0+1; c++) {
+                    if (c < 0 || c >= numCols)
+                        continue;
+                    long i = (long)r * numCols + c;
+                    if (get(revealed, i) || get(flags, i))
+                        continue;
+                    set(revealed, i);
+                    numRevealed++;
+                    n++;
+                    fireCellChanged(r, c);
+                    if (count(i) != 0)
+                        continue; // numbered border cell, don't expand
+                    if (((tail + 2) & mask) == head) {
+                        // Queue is full, double it and unwrap the contents.
+                        // The pair just before head is the one free slot.
+                        int used = queue.length;
+                        int[] bigger = new int[used * 2];
+                        int k = used - head;
+                        System.arraycopy(queue, head, bigger, 0, k);
+                        System.arraycopy(queue, 0, bigger, k, head);
+                        queue = bigger;
+                        mask = bigger.length - 1;
+                        head = 0;
+                        tail = used - 2;
+                    }
+                    queue[tail] = r;
+                    queue[tail+1] = c;
+                    tail = (tail + 2) & mask;
+                }
+            }
+        }
+        checkWon();
+        return n;
+    }
+
+    /**
+     * Reveal every cell on the board, e.g. when the game is over. This takes
+     * constant time, no matter how big the board is.
+     */
+    public void revealAll() {
+        allRevealed = true;
+        numRevealed = numCells;
+        for (BoardListener l : listeners)
+            l.boardChanged();
+    }
+
+    /**
+     * Plant a flag on the given cell. Returns true if the flag was planted,
+     * or false if the cell is revealed or already flagged.
+     */
+    public boolean makeFlag(int row, int col) {
+        long i = index(row, col);
+        if (allRevealed || get(revealed, i) || get(flags, i))
+            return false;
+        set(flags, i);
+        numFlags++;
+        fireCellChanged(row, col);
+        return true;
+    }
+
+    /**
+     * Remove the flag from the given cell. Returns true if a flag was removed.
+     */
+    public boolean undoFlag(int row, int col) {
+        long i = index(row, col);
+        if (!get(flags, i))
+            return false;
+        flags[(int)(i >>> CHUNK_BITS)][(int)(i >>> 6) & (CHUNK_WORDS-1)] &= ~(1L << i);
+        numFlags--;
+        fireCellChanged(row, col);
+        return true;
+    }
+
+    /**
+     * Apply a player's click to a cell. A LEFT click on a hidden cell reveals
+     * it with floodReveal(), and a RIGHT click plants a flag or removes one.
+     * Left clicks on revealed cells, and any click once the game is over, do
+     * nothing. Every way of playing a game (the GUI, replays, and so on) goes
+     * through here, so they all follow the same rules.
+     * @param button LEFT or RIGHT.
+     * @return true if the board changed.
+     */
+    public boolean click(int row, int col, int button) {
+        if (button != LEFT && button != RIGHT)
+            throw new IllegalArgumentException("no such button: " + button);
+        if (isGameOver())
+            return false;
+        if (button == LEFT) {
+            if (safeMode != SAFE_NONE && numRevealed == 0 && inBounds(row, col))
+                makeSafe(row, col);
+            return floodReveal(row, col) > 0;
+        }
+        return isFlag(row, col) ? undoFlag(row, col) : makeFlag(row, col);
+    }
+
+    // Raw access for SaveGame, which copies whole chunks of storage instead
+    // of going through every cell. Chunk k holds the cells with indexes in
+    // [k * CHUNK_SIZE, (k+1) * CHUNK_SIZE), and is getChunkCells() cells
+    // long. The arrays returned are the board's own, or null for a chunk that
+    // was never allocated.
+
+    int getNumChunks() {
+        return mines.length;
+    }
+
+    int getChunkCells() {
+        return chunkCells;
+    }
+
+    long[] getMineChunk(int k) {
+        return mines[k];
+    }
+
+    long[] getRevealedChunk(int k) {
+        return revealed[k];
+    }
+
+    long[] getFlagChunk(int k) {
+        return flags[k];
+    }
+
+    byte[] getCountChunk(int k) {
+        return counts[k];
+    }
+
+    boolean isAllRevealed() {
+        return allRevealed;
+    }
+
+    // Install chunk k of each kind of storage, for a board being restored.
+    void restoreChunk(int k, long[] mineChunk, long[] revealedChunk, long[] flagChunk,
+                      byte[] countChunk) {
+        mines[k] = mineChunk;
+        revealed[k] = revealedChunk;
+        flags[k] = flagChunk;
+        counts[k] = countChunk;
+    }
+
+    // Install the counters and game state, for a board being restored. The
+    // listeners are told that everything may have changed.
+    void restoreState(int numMines, long numRevealed, int numFlags,
+                      boolean lost, boolean won, boolean allRevealed) {
+        this.numMines = numMines;
+        this.numRevealed = numRevealed;
+        this.numFlags = numFlags;
+        this.lost = lost;
+        this.won = won;
+        this.allRevealed = allRevealed;
+        for (BoardListener l : listeners)
+            l.boardChanged();
+    }
+
+    // Move the mines away from the first click, see setFirstClickSafe().
+    private void makeSafe(int row, int col) {
+        int r0 = row, r1 = row, c0 = col, c1 = col;
+        if (safeMode == SAFE_AREA) {
+            r0 = Math.max(row - 1, 0);
+            r1 = Math.min(row + 1, numRows - 1);
+            c0 = Math.max(col - 1, 0);
+            c1 = Math.min(col + 1, numCols - 1);
+        }
+        int inArea = 0;
+        for (int r = r0; r <= r1; r++)
+            for (int c = c0; c <= c1; c++)
+                if (isMine(r, c))
+                    inArea++;
+        if (inArea == 0)
+            return;
+        long area = (long)(r1 - r0 + 1) * (c1 - c0 + 1);
+        if (numCells - area < numMines) {
+            // No room to clear the whole area, just clear the cell.
+            if (safeMode == SAFE_AREA && numCells - 1 >= numMines && isMine(row, col)) {
+                r0 = r1 = row;
+                c0 = c1 = col;
+            } else {
+                return;
+            }
+        }
+
+        // The mix of the seed and cell is SplittableRandom's own increment,
+        // so nearby cells give unrelated sequences.
+        long cell = (long)row * numCols + col;
+        SplittableRandom rng = new SplittableRandom(safeSeed + (cell + 1) * 0x9e3779b97f4a7c15L);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                if (!isMine(r, c))
+                    continue;
+                long to = freeCell(rng, r0, r1, c0, c1);
+                removeMine(r, c);
+                plantMine((int)(to / numCols), (int)(to % numCols));
+            }
+        }
+        for (BoardListener l : listeners)
+            l.boardChanged();
+    }
+
+    // Pick a random cell with no mine, outside rows [r0, r1] x columns
+    // [c0, c1]. A few random tries almost always find one, and if they don't
+    // (on a nearly full board), scan for one from a random start.
+    private long freeCell(SplittableRandom rng, int r0, int r1, int c0, int c1) {
+        for (int k = 0; k < RELOCATE_TRIES; k++) {
+            long i = rng.nextLong(numCells);
+            if (isFreeOutside(i, r0, r1, c0, c1))
+                return i;
+        }
+        long start = rng.nextLong(numCells);
+        for (long k = 0; k < numCells; k++) {
+            long i = (start + k) % numCells;
+            if (isFreeOutside(i, r0, r1, c0, c1))
+                return i;
+        }
+        throw new IllegalStateException("no free cell"); // checked by makeSafe()
+    }
+
+    // Returns true if cell i has no mine and is outside the given area.
+    private boolean isFreeOutside(long i, int r0, int r1, int c0, int c1) {
+        int r = (int)(i / numCols), c = (int)(i % numCols);
+        return (r < r0 || r > r1 || c < c0 || c > c1) && !get(mines, i);
+    }
+
+    // Take the mine out of a cell, and decrement the neighbor mine count of
+    // each of the cells around it.
+    private void removeMine(int row, int col) {
+        long i = index(row, col);
+        mines[(int)(i >>> CHUNK_BITS)][(int)(i >>> 6) & (CHUNK_WORDS-1)] &= ~(1L << i);
+        numMines--;
+        for (int r = row-1; r <= row+1; r++) {
+            if (r < 0 || r >= numRows)
+                continue;
+            for (int c = col-1; c <= col+1; c++) {
+                if (c < 0 || c >= numCols || (r == row && c == col))
+                    continue;
+                long j = (long)r * numCols + c;
+                countChunk(j)[(int)j & (CHUNK_SIZE-1)]--;
+            }
+        }
+    }
+
+    // Win the game if every cell without a mine has been revealed.
+    private void checkWon() {
+        if (!isGameOver() && numRevealed == numCells - numMines) {
+            won = true;
+            fireGameOver(true);
+        }
+    }
+
+    // Tell the listeners that one cell changed.
+    private void fireCellChanged(int row, int col) {
+        for (BoardListener l : listeners)
+            l.cellChanged(row, col);
+    }
+
+    // Tell the listeners that the game is over.
+    private void fireGameOver(boolean won) {
+        for (BoardListener l : listeners)
+            l.gameOver(won);
+    }
+
+    // Convert (row, col) to a cell index, checking that it is in bounds.
+    private long index(int row, int col) {
+        if (!inBounds(row, col))
+            throw new IndexOutOfBoundsException("cell (" + row + ", " + col + ") is off the board");
+        return (long)row * numCols + col;
+    }
+
+    // Get the neighbor mine count of cell i.
+    private int count(long i) {
+        byte[] chunk = counts[(int)(i >>> CHUNK_BITS)];
+        return chunk == null ? 0 : chunk[(int)i & (CHUNK_SIZE-1)];
+    }
+
+    // Get the chunk of counts holding cell i, allocating it if needed.
+    private byte[] countChunk(long i) {
+        int k = (int)(i >>> CHUNK_BITS);
+        byte[] chunk = counts[k];
+        if (chunk == null)
+            chunk = counts[k] = new byte[chunkCells];
+        return chunk;
+    }
+
+    // Get bit i of a chunked bitset.
+    private static boolean get(long[][] bits, long i) {
+        long[] chunk = bits[(int)(i >>> CHUNK_BITS)];
+        return chunk != null && (chunk[(int)(i >>> 6) & (CHUNK_WORDS-1)] & (1L << i)) != 0;
+    }
+
+    // Set bit i of a chunked bitset, allocating its chunk if needed.
+    private void set(long[][] bits, long i) {
+        int k = (int)(i >>> CHUNK_BITS);
+        long[] chunk = bits[k];
+        if (chunk == null)
+            chunk = bits[k] = new long[chunkCells / 64];
+        chunk[(int)(i >>> 6) & (CHUNK_WORDS-1)] |= 1L << i;
+    }
+}
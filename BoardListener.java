@@ -0,0 +1,37 @@
+/*----------------------------------------------------------------
+ *  Author:   Kayleigh Crosby
+ *  Email:    kacros23@g.holycross.edu
+ *  Written:  10/17/2026
+ *
+ *  BoardListener receives change events from a Board.
+ *----------------------------------------------------------------*/
+
+/**
+ * A <i>BoardListener</i> is told whenever the visible state of a Board
+ * changes, so that it can update only what changed instead of polling the
+ * whole board. Listeners are registered with Board.addListener(), and are
+ * called on the thread that changed the board.
+ */
+public interface BoardListener {
+
+    /**
+     * Called when a single cell was revealed, or had a flag planted or
+     * removed.
+     * @param row the row of the cell that changed.
+     * @param col the column of the cell that changed.
+     */
+    void cellChanged(int row, int col);
+
+    /**
+     * Called when many cells may have changed at once, e.g. when the whole
+     * board is revealed at the end of a game.
+     */
+    void boardChanged();
+
+    /**
+     * Called once, when the game on this board is won or lost.
+     * @param won true if every cell without a mine was revealed, or false if
+     * a mine was revealed.
+     */
+    void gameOver(boolean won);
+}
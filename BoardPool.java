@@ -0,0 +1,205 @@
+/*----------------------------------------------------------------
+ *  Author:   Kayleigh Crosby
+ *  Email:    kacros23@g.holycross.edu
+ *  Written:  10/17/2026
+ *
+ *  BoardPool keeps no-guess boards ready ahead of time, so a
+ *  no-guess game starts as fast as a random one.
+ *----------------------------------------------------------------*/
+
+import java.io.Closeable;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A <i>BoardPool</i> generates no-guess boards (see NoGuessGenerator) in the
+ * background and keeps them until they are wanted, one bounded queue per
+ * board size and mine count. Generating a hard board can take many tries, but
+ * taking one from the pool only removes a Layout from a queue.
+ *
+ * Each queue holds at most capacity layouts, its high watermark. When a take
+ * leaves lowWater or fewer, a background task is started to refill the queue
+ * back up to capacity, so the queue is topped up in bursts instead of after
+ * every game. At most one task refills a queue at a time. The background
+ * threads run at the lowest priority, so they only use time the games
+ * themselves don't need. If a queue is ever empty, take() generates a board
+ * on the calling thread instead of waiting.
+ *
+ * With too many mines, NoGuessGenerator may give up without a board. The
+ * pool then stops generating that kind of board, and take() returns null
+ * once its queue is empty, so the caller can fall back to a random board.
+ */
+public class BoardPool implements Closeable {
+
+    // The layouts and generator for one board size and mine count.
+    private final class Queue {
+        final NoGuessGenerator generator;
+        final ArrayBlockingQueue<NoGuessGenerator.Layout> layouts;
+        final AtomicBoolean refilling = new AtomicBoolean(false);
+        volatile boolean givenUp = false;
+        private final SplittableRandom rng;
+
+        Queue(int rows, int cols, int mines, long seed) {
+            generator = new NoGuessGenerator(rows, cols, mines);
+            layouts = new ArrayBlockingQueue<>(capacity);
+            rng = new SplittableRandom(seed);
+        }
+
+        // A generator of random numbers for one generate() call, so calls
+        // on different threads never share one.
+        synchronized SplittableRandom split() {
+            return rng.split();
+        }
+
+        // Start a refill if the queue is at or below the low watermark, and
+        // no refill is running.
+        void checkLevel() {
+            if (layouts.size() <= lowWater && !closed && !givenUp && refilling.compareAndSet(false, true))
+                refillers.submit(this::refill);
+        }
+
+        // Generate layouts until the queue is full.
+        private void refill() {
+            try {
+                while (!closed && !givenUp && layouts.remainingCapacity() > 0)
+                    generate();
+            } finally {
+                refilling.set(false);
+            }
+            // A take may have emptied the queue after the loop ended but
+            // before refilling was cleared.
+            checkLevel();
+        }
+
+        // Generate a layout, or give up on this kind of board. A generator
+        // interrupted by close() returns null too, but then nothing more
+        // is wanted anyway.
+        private void generate() {
+            NoGuessGenerator.Layout layout = generator.generate(split());
+            if (layout == null)
+                givenUp = true;
+            else
+                layouts.offer(layout);
+        }
+    }
+
+    private final int capacity;
+    private final int lowWater;
+    private final long seed;
+    private final ConcurrentHashMap<String, Queue> queues = new ConcurrentHashMap<>();
+    private final ExecutorService refillers;
+    private volatile boolean closed = false;
+
+    /**
+     * Initialize a pool that keeps up to capacity layouts of each kind of
+     * board, and refills a queue when lowWater or fewer are left, using one
+     * background thread per core.
+     * @param seed the seed for the layouts, so a pool can be made to give the
+     * same boards again.
+     */
+    public BoardPool(int capacity, int lowWater, long seed) {
+        this(capacity, lowWater, seed, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Initialize a pool that keeps up to capacity layouts of each kind of
+     * board, and refills a queue when lowWater or fewer are left, using the
+     * given number of background threads.
+     */
+    public BoardPool(int capacity, int lowWater, long seed, int numThreads) {
+        if (capacity < 1 || lowWater < 0 || lowWater >= capacity)
+            throw new IllegalArgumentException("need 0 <= lowWater < capacity");
+        this.capacity = capacity;
+        this.lowWater = lowWater;
+        this.seed = seed;
+        this.refillers = Executors.newFixedThreadPool(numThreads, r -> {
+            Thread t = new Thread(r, "BoardPool refiller");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+    }
+
+    /**
+     * Start filling the queue for a kind of board, ahead of the first
+     * take(), e.g. while the title screen is up.
+     */
+    public void prefill(int rows, int cols, int mines) {
+        queue(rows, cols, mines).checkLevel();
+    }
+
+    /**
+     * Start filling the queue for a difficulty level on a board of the given
+     * size (see Minesweeper.minesFor).
+     * @throws IllegalArgumentException if the difficulty is unknown.
+     */
+    public void prefill(String difficulty, int rows, int cols) {
+        prefill(rows, cols, mines(difficulty, rows, cols));
+    }
+
+    /**
+     * Take a no-guess layout for a kind of board. This returns at once if the
+     * queue has one, and otherwise generates one on this thread.
+     * @return the layout, or null if no-guess boards of this kind couldn't
+     * be found.
+     */
+    public NoGuessGenerator.Layout take(int rows, int cols, int mines) {
+        Queue q = queue(rows, cols, mines);
+        NoGuessGenerator.Layout layout = q.layouts.poll();
+        q.checkLevel();
+        if (layout == null && !q.givenUp) {
+            layout = q.generator.generate(q.split());
+            if (layout == null)
+                q.givenUp = true;
+        }
+        return layout;
+    }
+
+    /**
+     * Take a no-guess layout for a difficulty level on a board of the given
+     * size (see Minesweeper.minesFor).
+     * @return the layout, or null if no-guess boards of this kind couldn't
+     * be found.
+     * @throws IllegalArgumentException if the difficulty is unknown.
+     */
+    public NoGuessGenerator.Layout take(String difficulty, int rows, int cols) {
+        return take(rows, cols, mines(difficulty, rows, cols));
+    }
+
+    /**
+     * Get the number of layouts ready for a kind of board.
+     */
+    public int getNumReady(int rows, int cols, int mines) {
+        Queue q = queues.get(key(rows, cols, mines));
+        return q == null ? 0 : q.layouts.size();
+    }
+
+    /**
+     * Stop generating layouts. Layouts already in the pool can still be taken.
+     */
+    public void close() {
+        closed = true;
+        refillers.shutdownNow();
+    }
+
+    // Get the queue for a kind of board, making it if needed.
+    private Queue queue(int rows, int cols, int mines) {
+        return queues.computeIfAbsent(key(rows, cols, mines),
+                                      k -> new Queue(rows, cols, mines, seed ^ k.hashCode()));
+    }
+
+    private static String key(int rows, int cols, int mines) {
+        return rows + "x" + cols + "/" + mines;
+    }
+
+    private static int mines(String difficulty, int rows, int cols) {
+        int mines = Minesweeper.minesFor(difficulty, rows, cols);
+        if (mines < 0)
+            throw new IllegalArgumentException("unknown difficulty: " + difficulty);
+        return mines;
+    }
+}
@@ -0,0 +1,174 @@
+/*----------------------------------------------------------------
+ *  Author:   Kayleigh Crosby
+ *  Email:    kacros23@g.holycross.edu
+ *  Written:  10/17/2026
+ *
+ *  BoardWidget draws the visible part of a Board in a scrollable,
+ *  zoomable viewport.
+ *----------------------------------------------------------------*/
+
+import GUI.*;
+
+/**
+ * A <i>BoardWidget</i> is a single widget that draws a Board. Only the cells
+ * that fit in the widget's viewport are drawn, so the number of widgets and
+ * the cost of a repaint stay the same no matter how big the board is. The
+ * viewport can be scrolled around the board and zoomed in or out. All state is
+ * read straight from the Board, and each cell is drawn as a single tile
+ * picture (see TileAtlas).
+ */
+public class BoardWidget extends Widget {
+
+    /**
+     * Smallest size a cell can be zoomed out to, in pixels.
+     */
+    public static final int MIN_CELL_SIZE = 8;
+
+    /**
+     * Largest size a cell can be zoomed in to, in pixels.
+     */
+    public static final int MAX_CELL_SIZE = 40;
+
+    // The board being drawn.
+    private final Board board;
+
+    // A single cell, moved to each visible position in turn to draw it.
+    private final Cell cell;
+
+    // Row and column of the board shown in the top left of the viewport.
+    private int firstRow = 0;
+    private int firstCol = 0;
+
+    // Current size of a cell on the screen, in pixels.
+    private int cellSize = Cell.SIZE;
+
+    /**
+     * Initialize a new widget to draw the given board.
+     * @param board the board to draw.
+     * @param x the x coordinate of the top left of the viewport.
+     * @param y the y coordinate of the top left of the viewport.
+     * @param width the width of the viewport, in pixels.
+     * @param height the height of the viewport, in pixels.
+     */
+    public BoardWidget(Board board, int x, int y, int width, int height) {
+        super(x, y, width, height);
+        this.board = board;
+        this.cell = new Cell(board);
+    }
+
+    /**
+     * Get the current size of a cell on the screen, in pixels.
+     */
+    public int getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * Get the board row shown at the top of the viewport.
+     */
+    public int getFirstRow() {
+        return firstRow;
+    }
+
+    /**
+     * Get the board column shown at the left of the viewport.
+     */
+    public int getFirstCol() {
+        return firstCol;
+    }
+
+    /**
+     * Get the number of rows that fit in the viewport at the current zoom.
+     */
+    public int getVisibleRows() {
+        return Math.min(board.getNumRows(), (int)height / cellSize);
+    }
+
+    /**
+     * Get the number of columns that fit in the viewport at the current zoom.
+     */
+    public int getVisibleCols() {
+        return Math.min(board.getNumCols(), (int)width / cellSize);
+    }
+
+    /**
+     * Scroll the viewport by the given number of rows and columns. The
+     * viewport stops at the edges of the board.
+     */
+    public void scroll(int dRows, int dCols) {
+        scrollTo((long)firstRow + dRows, (long)firstCol + dCols);
+    }
+
+    /**
+     * Make cells one pixel bigger per step, keeping the top left cell in place.
+     */
+    public void zoomIn(int steps) {
+        setCellSize(cellSize + steps);
+    }
+
+    /**
+     * Make cells one pixel smaller per step, keeping the top left cell in
+     * place.
+     */
+    public void zoomOut(int steps) {
+        setCellSize(cellSize - steps);
+    }
+
+    /**
+     * Get the board row at screen coordinate y, or -1 if y is not over a cell.
+     */
+    public int rowAt(double y) {
+        int r = (int)Math.floor((y - this.y) / cellSize);
+        if (r < 0 || r >= getVisibleRows())
+            return -1;
+        return firstRow + r;
+    }
+
+    /**
+     * Get the board column at screen coordinate x, or -1 if x is not over a
+     * cell.
+     */
+    public int colAt(double x) {
+        int c = (int)Math.floor((x - this.x) / cellSize);
+        if (c < 0 || c >= getVisibleCols())
+            return -1;
+        return firstCol + c;
+    }
+
+    // Change the zoom, and keep the viewport inside the board.
+    private void setCellSize(int size) {
+        size = Math.max(MIN_CELL_SIZE, Math.min(MAX_CELL_SIZE, size));
+        cellSize = size;
+        scrollTo(firstRow, firstCol);
+    }
+
+    // Move the top left of the viewport, keeping it inside the board.
+    private void scrollTo(long row, long col) {
+        int maxRow = board.getNumRows() - getVisibleRows();
+        int maxCol = board.getNumCols() - getVisibleCols();
+        int r = (int)Math.max(0, Math.min(maxRow, row));
+        int c = (int)Math.max(0, Math.min(maxCol, col));
+        firstRow = r;
+        firstCol = c;
+    }
+
+    /**
+     * Paint the visible cells of the board on the canvas. Don't call this
+     * directly, it is called by the GUI system automatically.
+     * @param canvas the canvas on which to draw.
+     */
+    public void repaint(GUI.Canvas canvas) {
+        // Clear the part of the viewport that whole cells don't cover, then
+        // draw every visible cell.
+        canvas.setPenColor(Canvas.DARK_GRAY);
+        canvas.filledRectangle(x, y, width, height);
+        int rows = getVisibleRows();
+        int cols = getVisibleCols();
+        for (int r = 0; r < rows; r++)
+            for (int c = 0; c < cols; c++) {
+                cell.moveTo(firstRow + r, firstCol + c,
+                            (int)x + c * cellSize, (int)y + r * cellSize, cellSize);
+                cell.repaint(canvas);
+            }
+    }
+}
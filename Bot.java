@@ -0,0 +1,41 @@
+/*----------------------------------------------------------------
+ *  Author:   Kayleigh Crosby
+ *  Email:    kacros23@g.holycross.edu
+ *  Written:  10/17/2026
+ *
+ *  Bot is a player that the Simulator can use to play games
+ *  without a GUI.
+ *----------------------------------------------------------------*/
+
+import java.util.random.RandomGenerator;
+
+/**
+ * A <i>Bot</i> plays minesweeper on a Board. For each game, newGame() is
+ * called once, then nextMove() is called until the game is over, and the cell
+ * it returns is revealed (with Board.floodReveal()) by the caller. A bot should
+ * only use the visible state of the board. A bot is used by one thread at a
+ * time, and all of its randomness must come from the rng it is given, so that
+ * a game can be played again exactly from its seed.
+ */
+public interface Bot {
+
+    /**
+     * Start playing a new game.
+     * @param board the board, with its mines already deployed.
+     * @param numMines the number of mines on the board.
+     * @param rng the source of randomness for this game.
+     */
+    void newGame(Board board, int numMines, RandomGenerator rng);
+
+    /**
+     * Choose the next cell to reveal.
+     * @return a hidden cell, packed as in CellQueue.pack().
+     */
+    long nextMove();
+
+    /**
+     * Get the number of moves in the current game that were guesses, i.e.
+     * the cell chosen wasn't known to be safe.
+     */
+    int getNumGuesses();
+}
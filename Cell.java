@@ -4,254 +4,187 @@
  *  Written:  7/13/2015
  *  Edit:     4/182020
  *  
- *  Each Cell object manages information about and draws a
- *  single "cell" of the game grid. 
+ *  Each Cell object draws a single "cell" of the game grid,
+ *  using the state kept for it in the Board. 
  *  Based on the status of the cell, it will be repainted and shown
- *  different images 
+ *  different images, which are pre-drawn by TileAtlas 
  *----------------------------------------------------------------*/
 
 import GUI.*;
-import java.awt.Color;
-import java.awt.Font;
+import java.awt.Graphics2D;
 
 /**
- * A <i>Cell</i> object holds all information about the state of a single cell
- * of the minesweeper game board. This includes:
+ * A <i>Cell</i> object draws a single cell of the minesweeper game board. The
+ * state of the cell is not stored here, but in the game's Board:
  *   - whether a mine is hidden in this cell or not
  *   - how many of its neighboring cells contain mines
  *   - whether it has been revealed yet or is still hidden
- * Each Cell object knows how to draw itself in a graphical window, and it will
- * draw itself in different styles depending on all the above state information.
+ * Each Cell object is a view of one (row, col) position of the Board, and it
+ * will draw itself in different styles depending on all the above state
+ * information. A BoardWidget uses a single Cell to draw every visible cell, by
+ * moving it to each position in turn with moveTo().
  */
 public class Cell extends Widget {
 
   /**
-     * Size of one cell when it is drawn on the screen, in pixels.
+     * Size of one cell when it is drawn on the screen, in pixels, before any
+     * zooming.
      */
   public static final int SIZE = 20;
 
-  /**
-     * Whether a mine is hidden in this cell or not.
-     */
-  protected boolean isMine;
+  // The board holding the state of this cell, and the position of the cell
+  // within it.
+  private final Board board;
+  private int row;
+  private int col;
 
   /**
-     * Whether this cell is "revealed" or not.
+     * Constructor: Initialize a cell to be drawn at the given x, y coordinates
+     * on the screen, showing the state of cell (row, col) of the board.
      */
-  protected boolean isRevealed;
+  public Cell(Board board, int row, int col, int x, int y) {
+    super(x, y, SIZE, SIZE);
+    this.board = board;
+    this.row = row;
+    this.col = col;
+  }
 
   /**
-     * Count of how many neighboring cells have mines.
+     * Constructor: Initialize a cell that will be moved around the board with
+     * moveTo() before it is drawn.
      */
-  protected int neighborMineCount;
-
-  protected boolean isFlag; 
-
-  protected int flagCount; 
+  public Cell(Board board) {
+    this(board, 0, 0, 0, 0);
+  }
 
   /**
-     * Constructor: Initialize a cell to be drawn at the given x, y coordinates
-     * on the screen. The cell will be blank. That is, it will not be a mine,
-     * and it will have no neighboring mines so a neighbor mine count of zero.
+     * Make this cell show the state of cell (row, col) of the board, drawn at
+     * the given x, y coordinates on the screen and size pixels wide and tall.
      */
-  public Cell(int x, int y) {
-    super(x, y, SIZE, SIZE);
-    this.isMine = false;
-    this.isRevealed = false;
-    this.neighborMineCount = 0;
+  public void moveTo(int row, int col, int x, int y, int size) {
+    this.row = row;
+    this.col = col;
+    this.x = x;
+    this.y = y;
+    this.width = size;
+    this.height = size;
   }
 
   /**
-     * Hide a mine in this cell by changing the isMine variable to true.
+     * Hide a mine in this cell. This also updates the neighbor mine counts of
+     * the surrounding cells.
      */
   public void plantMine() {
-    isMine = true;
+    board.plantMine(row, col);
   }
 
   /**
      * Returns true if a mine is hidden in this cell, otherwise returns false.
      */
   public boolean isMine() {
-    return isMine;
+    return board.isMine(row, col);
   }
 
   /**
      * Increment the neighbor mine count variable by one. 
      */
   public void incrementNeighborMineCount() {
-    neighborMineCount++;
+    board.setNeighborMineCount(row, col, getNeighborMineCount() + 1);
   }
 
   /**
      * Set the neighbor mine count variable to a given value.
      */
   public void setNeighborMineCount(int count) {
-    neighborMineCount = count;
+    board.setNeighborMineCount(row, col, count);
   }
 
   /**
      * Returns the value of the neighbor mine count variable.
      */
   public int getNeighborMineCount() {
-    return neighborMineCount;
+    return board.getNeighborMineCount(row, col);
   }
 
   /**
-     * Change this cell so that it is "revealed" by setting isRevealed to true.
+     * Change this cell so that it is "revealed".
      */
   public void reveal() {
-    isRevealed = true;
+    board.reveal(row, col);
   }
 
   /**
      * Returns true if this cell is "revealed", otherwise returns false.
      */
   public boolean isRevealed() {
-    return isRevealed;
+    return board.isRevealed(row, col);
   }
 
   /**
-     * Hide a mine in this cell by changing the isMine variable to true.
+     * Hide a mine in this cell. Same as plantMine().
      */
   public void makeMine() {
-    isMine = true;
+    board.plantMine(row, col);
   }
 
   /**
      * Change this cell so that it shows the mine that is hiding in it.
      */
   public void showMine() {
-    if (isMine)
-      isRevealed = true;
+    if (isMine())
+      reveal();
   }
 
   /**
      * Check whether there are neighboring mines.
      */
   public boolean coastIsClear() {
-    return (neighborMineCount == 0);
+    return (getNeighborMineCount() == 0);
   }
 
   // Extra Credit FINISHED: these methods are used to keep track of flags 
   // checks if cell should repaint a flag 
   public boolean isFlag() { 
-    return isFlag; 
+    return board.isFlag(row, col); 
   } 
 
 
   public void  makeFlag() { 
-    isFlag = true; 
+    board.makeFlag(row, col); 
   }
 
-  public int getFlagCount() { 
-    return flagCount; 
+  // removes the flag so the cell will paint over flag png 
+  public void undoFlag() { 
+    board.undoFlag(row, col); 
   }
 
-  // sets flag to false so the cell will paint over flag png 
-  public void undoFlag() { 
-    isFlag = false; 
+  /**
+     * Get the kind of TileAtlas tile that shows this cell in its current
+     * state.
+     */
+  public int getTileKind() {
+    return TileAtlas.kindOf(board, row, col);
   }
 
   /**
      * Paint this cell on the canvas. Don't call this directly, it is called by
-     * the GUI system automatically. This function should draw something on the
-     * canvas. Usually the drawing should stay within the bounds (x, y, width,
-     * height) which are protected member variables of GUI.Widget, which this
-     * class extends.
+     * the GUI system automatically. Every look a cell can have is drawn ahead
+     * of time by TileAtlas, and saved to a file, so this just draws the right
+     * tile, sized for the current zoom, onto the canvas.
      * @param canvas the canvas on which to draw.
      */
   public void repaint(GUI.Canvas canvas) {
-    // FINISHED: Add code here to draw this cell. The look of the cell should
-    // depend on its current state, e.g. if it has been revealed or not, how
-    // many neighbors it has, and so on.
-
-    // draws dark rectangles for 600 cells 
-    canvas.setPenColor(Canvas.DARK_GRAY); 
-    canvas.raisedBevelRectangle(x, y, 20, 20, 4.0);
-
-    if (isRevealed) {
-      if (!isMine){
-        canvas.setPenColor(Canvas.LIGHT_GRAY); 
-        canvas.sunkenBevelRectangle(x , y ,20,20,4.0); 
-
-        Font font = new Font ("Arial", Font.BOLD , 18); 
-
-        // prints number of neighboring mines over cell 
-        switch (neighborMineCount){ 
-
-          case 1: 
-            canvas.setPenColor(Canvas.DARK_GREEN);
-            canvas.setFont(font); 
-            canvas.text(x + Cell.SIZE/2, y + Cell.SIZE/2, "1"  );
-            break; 
-
-          case 2: 
-            canvas.setPenColor(Canvas.BLUE);
-            canvas.setFont(font); 
-            canvas.text(x + Cell.SIZE/2, y + Cell.SIZE/2, "2"  );
-            break; 
-
-          case 3: 
-            canvas.setPenColor(Canvas.MAGENTA);
-            canvas.setFont(font); 
-            canvas.text(x + Cell.SIZE/2, y + Cell.SIZE/2, "3"  );
-            break; 
-
-          case 4: 
-            canvas.setPenColor(Canvas.RED);
-            canvas.setFont(font); 
-            canvas.text(x + Cell.SIZE/2, y + Cell.SIZE/2, "4"  );
-            break; 
-
-          case 5: 
-            canvas.setPenColor(Canvas.BLACK);
-            canvas.setFont(font); 
-            canvas.text(x + Cell.SIZE/2, y + Cell.SIZE/2, "5"  );
-            break; 
-
-          case 6: 
-            canvas.setPenColor(Canvas.ORANGE);
-            canvas.setFont(font); 
-            canvas.text(x + Cell.SIZE/2, y + Cell.SIZE/2, "6"  );
-            break; 
-
-          case 7: 
-            canvas.setFont(font); 
-            canvas.setPenColor(Canvas.YELLOW);
-            canvas.text(x + Cell.SIZE/2, y + Cell.SIZE/2, "7"  );
-            break; 
-
-          case 8: 
-            canvas.setPenColor(Canvas.GRAY);
-            canvas.setFont(font); 
-            canvas.text(x + Cell.SIZE/2, y + Cell.SIZE/2, "8"  );
-            break; 
-
-          case 0: 
-            canvas.setPenColor(Canvas.GREEN); 
-            canvas.text(x + Cell.SIZE/2, y + Cell.SIZE/2, " "  );
-            break; 
-
-          default:
-            break; 
-        }
-      } // ends printing neighboring mine count switch 
-
-      // prints poop emoji to indicate mines when revealed 
-      if (isMine){
-        canvas.setPenColor(Canvas.RED); 
-        canvas.filledRectangle(x, y, 20,20); 
-        canvas.pictureCentered(x + Cell.SIZE/2 , y + Cell.SIZE/2 , "poop.png", 18, 18);
-      } 
-
-    } // end of if isRevealed 
-
-    // prints flag png over cell if flag is true 
-    if (isFlag){
-      canvas.setPenColor(Canvas.DARK_GRAY ); 
-      canvas.filledRectangle(x, y, 20,20); 
-      canvas.pictureCentered(x + Cell.SIZE/2 , y + Cell.SIZE/2 , "flag.png", 18, 18);
-    } 
+    canvas.picture(x, y, TileAtlas.tileFile(getTileKind(), (int)width));
   } // end of repaint 
 
-} // end of cell
\ No newline at end of file
+  /**
+     * Paint this cell with plain Java graphics, e.g. into an offscreen image,
+     * by copying its tile. The cell is drawn at its x, y, width, height, in
+     * the coordinates of g.
+     * @param g the graphics on which to draw.
+     */
+  public void paint(Graphics2D g) {
+    g.drawImage(TileAtlas.tile(getTileKind(), (int)width), (int)x, (int)y, null);
+  }
+
+} // end of cell
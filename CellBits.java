@@ -0,0 +1,88 @@
+/*----------------------------------------------------------------
+ *  Author:   Kayleigh Crosby
+ *  Email:    kacros23@g.holycross.edu
+ *  Written:  10/17/2026
+ *
+ *  CellBits is a set of cells stored as a chunked bitset.
+ *----------------------------------------------------------------*/
+
+/**
+ * A <i>CellBits</i> object is a set of cell indexes, stored one bit per cell
+ * like the bitsets inside Board. The bits are split into chunks of
+ * Board.CHUNK_SIZE cells (or one smaller chunk, for a set with fewer cells
+ * than that), and a chunk is only allocated the first time one of its bits is
+ * set, so a set covering a huge board costs little until it is used.
+ */
+public class CellBits {
+
+    // Number of longs in one chunk.
+    private static final int CHUNK_WORDS = Board.CHUNK_SIZE / 64;
+
+    // The chunks of bits, where a null chunk means all of its bits are zero.
+    private final long[][] chunks;
+
+    // Number of longs each chunk is allocated with.
+    private final int chunkWords;
+
+    // Number of bits that are set.
+    private long size = 0;
+
+    /**
+     * Initialize an empty set that can hold cell indexes 0 to capacity-1.
+     */
+    public CellBits(long capacity) {
+        long n = (capacity + Board.CHUNK_SIZE - 1) >>> Board.CHUNK_BITS;
+        if (n > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("too many cells: " + capacity);
+        chunks = new long[(int)n][];
+        chunkWords = (int)Math.min(CHUNK_WORDS, (capacity + 63) >>> 6);
+    }
+
+    /**
+     * Returns true if cell i is in the set.
+     */
+    public boolean get(long i) {
+        long[] chunk = chunks[(int)(i >>> Board.CHUNK_BITS)];
+        return chunk != null && (chunk[(int)(i >>> 6) & (CHUNK_WORDS-1)] & (1L << i)) != 0;
+    }
+
+    /**
+     * Add cell i to the set. Returns true if it was not already there.
+     */
+    public boolean set(long i) {
+        int k = (int)(i >>> Board.CHUNK_BITS);
+        long[] chunk = chunks[k];
+        if (chunk == null)
+            chunk = chunks[k] = new long[chunkWords];
+        int w = (int)(i >>> 6) & (CHUNK_WORDS-1);
+        long old = chunk[w];
+        chunk[w] = old | (1L << i);
+        if (old == chunk[w])
+            return false;
+        size++;
+        return true;
+    }
+
+    /**
+     * Remove cell i from the set. Returns true if it was there.
+     */
+    public boolean clear(long i) {
+        long[] chunk = chunks[(int)(i >>> Board.CHUNK_BITS)];
+        if (chunk == null)
+            return false;
+        int w = (int)(i >>> 6) & (CHUNK_WORDS-1);
+        long old = chunk[w];
+        chunk[w] = old & ~(1L << i);
+        if (old == chunk[w])
+            return false;
+        size--;
+        return true;
+    }
+
+    /**
+     * Get the number of cells in the set.
+     */
+    public long size() {
+        return size;
+    }
+}
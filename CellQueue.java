@@ -0,0 +1,107 @@
+/*----------------------------------------------------------------
+ *  Author:   Kayleigh Crosby
+ *  Email:    kacros23@g.holycross.edu
+ *  Written:  10/17/2026
+ *
+ *  CellQueue is a first-in first-out queue of (row, col) cells.
+ *----------------------------------------------------------------*/
+
+/**
+ * A <i>CellQueue</i> is a first-in first-out queue of cells, kept as (row, col)
+ * pairs in a ring buffer of ints. The buffer only grows when the queue is
+ * fuller than it has ever been, so a queue that is reused doesn't allocate.
+ * A cell taken off the queue is returned packed into a long, see pack().
+ */
+public class CellQueue {
+
+    // The ring buffer, holding pairs from head up to (not including) tail.
+    // Its length is always a power of two.
+    private int[] buf;
+    private int head = 0;
+    private int tail = 0;
+
+    /**
+     * Initialize an empty queue.
+     */
+    public CellQueue() {
+        buf = new int[64];
+    }
+
+    /**
+     * Pack a row and column into a single long.
+     */
+    public static long pack(int row, int col) {
+        return ((long)row << 32) | (col & 0xffffffffL);
+    }
+
+    /**
+     * Get the row of a packed cell.
+     */
+    public static int rowOf(long cell) {
+        return (int)(cell >> 32);
+    }
+
+    /**
+     * Get the column of a packed cell.
+     */
+    public static int colOf(long cell) {
+        return (int)cell;
+    }
+
+    /**
+     * Returns true if the queue is empty.
+     */
+    public boolean isEmpty() {
+        return head == tail;
+    }
+
+    /**
+     * Get the number of cells in the queue.
+     */
+    public int size() {
+        return ((tail - head) & (buf.length - 1)) / 2;
+    }
+
+    /**
+     * Add a cell to the back of the queue.
+     */
+    public void add(int row, int col) {
+        if (((tail + 2) & (buf.length - 1)) == head)
+            grow();
+        buf[tail] = row;
+        buf[tail+1] = col;
+        tail = (tail + 2) & (buf.length - 1);
+    }
+
+    /**
+     * Take the cell at the front of the queue, packed into a long, or return
+     * -1 if the queue is empty.
+     */
+    public long poll() {
+        if (head == tail)
+            return -1;
+        long cell = pack(buf[head], buf[head+1]);
+        head = (head + 2) & (buf.length - 1);
+        return cell;
+    }
+
+    /**
+     * Remove every cell from the queue.
+     */
+    public void clear() {
+        head = tail = 0;
+    }
+
+    // Double the buffer, moving the contents to the start of it. The queue is
+    // full, so the pair just before head is the only free slot.
+    private void grow() {
+        int used = buf.length;
+        int[] bigger = new int[used * 2];
+        int k = used - head;
+        System.arraycopy(buf, head, bigger, 0, k);
+        System.arraycopy(buf, 0, bigger, k, head);
+        buf = bigger;
+        head = 0;
+        tail = used - 2;
+    }
+}
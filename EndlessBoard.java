@@ -0,0 +1,673 @@
+/*----------------------------------------------------------------
+ *  Author:   Kayleigh Crosby
+ *  Email:    kacros23@g.holycross.edu
+ *  Written:  10/17/2026
+ *
+ *  EndlessBoard is a minesweeper board with no edges, made up
+ *  one chunk at a time as the player gets to it.
+ *
+ *  Example: java EndlessBoard 1234 hard 100000 # walk far and back
+ *
+ *----------------------------------------------------------------*/
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * An <i>EndlessBoard</i> is a headless board for endless mode: any int row and
+ * column is a cell, and the player can go as far as they like in every
+ * direction. Nothing is stored for a cell until the player gets near it.
+ *
+ * Whether a cell holds a mine is a hash of the seed and the cell (see
+ * MineOracle.cellHash), compared with the density, so it doesn't depend on
+ * any other cell or on the order cells are looked at. The board is split
+ * into square chunks, CHUNK_SIDE cells on a side. The first time a chunk is
+ * needed, its mine bits and neighbor counts are worked out from the hash, in
+ * tens of microseconds, with no need for the chunks around it. The 3x3 area
+ * around (0, 0) never holds a mine, so a game always starts by revealing
+ * (0, 0).
+ *
+ * Chunks are kept in a cache of at most maxChunks chunks, in least recently
+ * used order. When the cache is full, the chunk used longest ago is dropped.
+ * If the player revealed or flagged anything in it, its revealed and flag
+ * bits are first written to a slot in a spill file, and read back the next
+ * time the chunk is needed. The mines and counts are never spilled, since
+ * making them again is as fast as reading them. The index saying which slot
+ * holds which chunk is a hash table at the start of the spill file, so
+ * however far the player goes, memory holds only the cache. The file has
+ * room for MAX_SPILLED_CHUNKS chunks, and spilling one more is an error.
+ *
+ * The game is lost when a mine is revealed. Since there is no last cell to
+ * reveal, it can't be won. At low densities, empty regions can go on without
+ * end, so floodReveal() only opens cells up to FLOOD_RADIUS rows or columns
+ * from where it started. Clicking a revealed empty cell at the edge of an
+ * opened region carries on from there.
+ *
+ * Reading or writing the spill file can fail, in the middle of a click. Such
+ * errors are thrown as UncheckedIOException.
+ */
+public class EndlessBoard implements Closeable {
+
+    /**
+     * Number of cells on each side of a chunk, as a power of two.
+     */
+    public static final int CHUNK_BITS = 6;
+
+    /**
+     * Number of cells on each side of a chunk.
+     */
+    public static final int CHUNK_SIDE = 1 << CHUNK_BITS;
+
+    /**
+     * Chunks kept in memory by default, about 1.5 MB.
+     */
+    public static final int DEFAULT_MAX_CHUNKS = 256;
+
+    /**
+     * Most chunks the spill file has slots for, over a billion cells. The
+     * file is at most 264 MB, and only the parts used take disk space on
+     * file systems with sparse files.
+     */
+    public static final int MAX_SPILLED_CHUNKS = 1 << 18;
+
+    /**
+     * Most rows or columns a flood reveal opens from the cell it started at.
+     */
+    public static final int FLOOD_RADIUS = 128;
+
+    // Cells in a chunk, and longs in one chunk of a bitset.
+    private static final int CHUNK_CELLS = CHUNK_SIDE * CHUNK_SIDE;
+    private static final int CHUNK_WORDS = CHUNK_CELLS / 64;
+
+    // Side of a chunk with one more cell all around it.
+    private static final int HALO_SIDE = CHUNK_SIDE + 2;
+
+    // Bytes of one slot in the spill file: the revealed bits, then the flags.
+    private static final int SLOT_BYTES = 2 * CHUNK_WORDS * 8;
+
+    // The spill file's index comes first, then the slots. The index is a
+    // hash table with linear probing, twice as big as it can ever get full,
+    // of entries holding a chunk's key and its slot number plus one, or zero
+    // for an empty entry.
+    private static final int INDEX_ENTRIES = 2 * MAX_SPILLED_CHUNKS;
+    private static final int INDEX_BITS = Integer.numberOfTrailingZeros(INDEX_ENTRIES);
+    private static final int ENTRY_BYTES = 16;
+    private static final long INDEX_BYTES = (long)INDEX_ENTRIES * ENTRY_BYTES;
+
+    // The storage for one chunk. Chunk (cr, cc) holds the cells from row
+    // cr * CHUNK_SIDE and column cc * CHUNK_SIDE, with cell (r, c) at index
+    // (r mod CHUNK_SIDE) * CHUNK_SIDE + (c mod CHUNK_SIDE).
+    private static final class Chunk {
+        final long key;
+        final long[] mines = new long[CHUNK_WORDS];
+        final long[] revealed = new long[CHUNK_WORDS];
+        final long[] flags = new long[CHUNK_WORDS];
+        final byte[] counts = new byte[CHUNK_CELLS];
+
+        // Whether revealed or flags changed since the chunk was loaded.
+        boolean dirty = false;
+
+        Chunk(long key) {
+            this.key = key;
+        }
+    }
+
+    private final long seed;
+    private final double density;
+
+    // The seed, mixed once for MineOracle.cellHashMixed().
+    private final long mixedSeed;
+
+    // The density, as a threshold for the top 53 bits of a cell's hash.
+    private final long threshold;
+
+    // The cache, in least recently used order, and the last chunk used, so
+    // runs of cells in one chunk skip the lookup.
+    private final int maxChunks;
+    private final LinkedHashMap<Long, Chunk> cache;
+    private Chunk last = null;
+
+    // The spill file, opened the first time a chunk is spilled, and the
+    // number of slots used in it. A temporary file is used if no path was
+    // given.
+    private final Path spillPath;
+    private Path tempPath = null;
+    private FileChannel spill = null;
+    private int numSpilled = 0;
+    private final ByteBuffer slotBuf = ByteBuffer.allocateDirect(SLOT_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    private final ByteBuffer entryBuf = ByteBuffer.allocateDirect(ENTRY_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+    // Mines around the chunk being made, one byte per cell, and the queue
+    // for floodReveal(). Both are kept between calls to avoid allocating.
+    private final byte[] halo = new byte[HALO_SIDE * HALO_SIDE];
+    private final CellQueue queue = new CellQueue();
+
+    private long numRevealed = 0;
+    private long numFlags = 0;
+    private long numLoaded = 0;
+    private boolean lost = false;
+
+    private BoardListener[] listeners = new BoardListener[0];
+
+    /**
+     * Initialize an endless board with mines from the given seed, keeping
+     * DEFAULT_MAX_CHUNKS chunks in memory and spilling to a temporary file.
+     * @param density the chance of each cell holding a mine, from 0 to 1.
+     */
+    public EndlessBoard(long seed, double density) {
+        this(seed, density, DEFAULT_MAX_CHUNKS, null);
+    }
+
+    /**
+     * Initialize an endless board with mines from the given seed.
+     * @param density the chance of each cell holding a mine, from 0 to 1.
+     * @param maxChunks the most chunks kept in memory.
+     * @param spillPath the file chunks are spilled to, or null for a
+     * temporary file. The file is deleted by close().
+     */
+    public EndlessBoard(long seed, double density, int maxChunks, Path spillPath) {
+        if (!(density >= 0 && density <= 1))
+            throw new IllegalArgumentException("density must be from 0 to 1: " + density);
+        if (maxChunks < 1)
+            throw new IllegalArgumentException("need room for at least one chunk");
+        this.seed = seed;
+        this.mixedSeed = MineOracle.mixSeed(seed);
+        this.density = density;
+        this.threshold = (long)(density * 0x1p53);
+        this.maxChunks = maxChunks;
+        this.spillPath = spillPath;
+        this.cache = new LinkedHashMap<>(2 * maxChunks, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Chunk> eldest) {
+                if (size() <= EndlessBoard.this.maxChunks)
+                    return false;
+                evict(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Get the chance of a cell holding a mine for a difficulty level, the
+     * same as on the default board (see Minesweeper.minesFor), or -1 if the
+     * difficulty is unknown.
+     */
+    public static double densityFor(String difficulty) {
+        int mines = Minesweeper.minesFor(difficulty, Game.NUM_ROWS, Game.NUM_COLS);
+        return mines < 0 ? -1 : (double)mines / (Game.NUM_ROWS * Game.NUM_COLS);
+    }
+
+    /**
+     * Get the seed the mines come from.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Get the chance of each cell holding a mine.
+     */
+    public double getDensity() {
+        return density;
+    }
+
+    /**
+     * Get the number of cells revealed so far.
+     */
+    public long getNumRevealed() {
+        return numRevealed;
+    }
+
+    /**
+     * Get the number of flags planted.
+     */
+    public long getNumFlags() {
+        return numFlags;
+    }
+
+    /**
+     * Get the number of chunks in memory now.
+     */
+    public int getNumCached() {
+        return cache.size();
+    }
+
+    /**
+     * Get the number of chunks that have a slot in the spill file.
+     */
+    public int getNumSpilled() {
+        return numSpilled;
+    }
+
+    /**
+     * Get the number of times a chunk was made or read back, i.e. cache
+     * misses.
+     */
+    public long getNumLoaded() {
+        return numLoaded;
+    }
+
+    /**
+     * Returns true if a mine was revealed.
+     */
+    public boolean isLost() {
+        return lost;
+    }
+
+    /**
+     * Returns true if the game is over, which only happens when it is lost.
+     */
+    public boolean isGameOver() {
+        return lost;
+    }
+
+    /**
+     * Add a listener to be told about changes to this board. Endless boards
+     * never call boardChanged(), and only call gameOver() with false.
+     */
+    public void addListener(BoardListener listener) {
+        BoardListener[] more = new BoardListener[listeners.length + 1];
+        System.arraycopy(listeners, 0, more, 0, listeners.length);
+        more[listeners.length] = listener;
+        listeners = more;
+    }
+
+    /**
+     * Returns true if the given cell holds a mine. This only hashes the
+     * cell, and doesn't load its chunk.
+     */
+    public boolean isMine(int row, int col) {
+        return mineAt(row, col);
+    }
+
+    /**
+     * Returns true if the given cell has been revealed.
+     */
+    public boolean isRevealed(int row, int col) {
+        return get(chunk(row, col).revealed, row, col);
+    }
+
+    /**
+     * Returns true if the given cell has a flag planted on it.
+     */
+    public boolean isFlag(int row, int col) {
+        return get(chunk(row, col).flags, row, col);
+    }
+
+    /**
+     * Get the number of mines neighboring the given cell.
+     */
+    public int getNeighborMineCount(int row, int col) {
+        return chunk(row, col).counts[offset(row, col)];
+    }
+
+    /**
+     * Reveal the given cell. Returns true if the cell was hidden before, or
+     * false if it had already been revealed. Revealing a mine loses the game.
+     */
+    public boolean reveal(int row, int col) {
+        Chunk chunk = chunk(row, col);
+        if (get(chunk.revealed, row, col))
+            return false;
+        set(chunk.revealed, row, col);
+        chunk.dirty = true;
+        numRevealed++;
+        fireCellChanged(row, col);
+        if (get(chunk.mines, row, col) && !lost) {
+            lost = true;
+            for (BoardListener l : listeners)
+                l.gameOver(false);
+        }
+        return true;
+    }
+
+    /**
+     * Reveal the given cell and, if it has no neighboring mines, the
+     * connected region of empty cells around it together with the numbered
+     * cells bordering that region, as Board.floodReveal() does. Cells more
+     * than FLOOD_RADIUS rows or columns away are revealed but not opened
+     * further. If the cell was already revealed and empty, its hidden
+     * neighbors are opened the same way.
+     * @return the number of cells that were revealed by this call.
+     */
+    public long floodReveal(int row, int col) {
+        long n = reveal(row, col) ? 1 : 0;
+        Chunk chunk = chunk(row, col);
+        if (get(chunk.mines, row, col) || chunk.counts[offset(row, col)] != 0)
+            return n;
+
+        queue.clear();
+        queue.add(row, col);
+        while (!queue.isEmpty()) {
+            long cell = queue.poll();
+            int r0 = CellQueue.rowOf(cell);
+            int c0 = CellQueue.colOf(cell);
+            for (long r = r0-1L; r <= r0+1L; r++) {
+                if (r != (int)r)
+                    continue; // past the last row an int can hold
+                for (long c = c0-1L; c <= c0+1L; c++) {
+                    if (c != (int)c)
+                        continue;
+                    chunk = chunk((int)r, (int)c);
+                    int i = offset((int)r, (int)c);
+                    if (get(chunk.revealed, i) || get(chunk.flags, i))
+                        continue;
+                    chunk.revealed[i >>> 6] |= 1L << i;
+                    chunk.dirty = true;
+                    numRevealed++;
+                    n++;
+                    fireCellChanged((int)r, (int)c);
+                    if (chunk.counts[i] != 0)
+                        continue; // numbered border cell, don't expand
+                    if (Math.abs(r - row) > FLOOD_RADIUS || Math.abs(c - col) > FLOOD_RADIUS)
+                        continue; // far enough for one click
+                    queue.add((int)r, (int)c);
+                }
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Plant a flag on the given cell. Returns true if the flag was planted,
+     * or false if the cell is revealed or already flagged.
+     */
+    public boolean makeFlag(int row, int col) {
+        Chunk chunk = chunk(row, col);
+        int i = offset(row, col);
+        if (get(chunk.revealed, i) || get(chunk.flags, i))
+            return false;
+        chunk.flags[i >>> 6] |= 1L << i;
+        chunk.dirty = true;
+        numFlags++;
+        fireCellChanged(row, col);
+        return true;
+    }
+
+    /**
+     * Remove the flag from the given cell. Returns true if a flag was removed.
+     */
+    public boolean undoFlag(int row, int col) {
+        Chunk chunk = chunk(row, col);
+        int i = offset(row, col);
+        if (!get(chunk.flags, i))
+            return false;
+        chunk.flags[i >>> 6] &= ~(1L << i);
+        chunk.dirty = true;
+        numFlags--;
+        fireCellChanged(row, col);
+        return true;
+    }
+
+    /**
+     * Apply a player's click to a cell, as Board.click() does. A LEFT click
+     * on a cell without a flag calls floodReveal(), and a RIGHT click plants
+     * a flag or removes one. Once the game is over, clicks do nothing.
+     * @param button Board.LEFT or Board.RIGHT.
+     * @return true if the board changed.
+     */
+    public boolean click(int row, int col, int button) {
+        if (button != Board.LEFT && button != Board.RIGHT)
+            throw new IllegalArgumentException("no such button: " + button);
+        if (lost)
+            return false;
+        if (button == Board.LEFT)
+            return !isFlag(row, col) && floodReveal(row, col) > 0;
+        return isFlag(row, col) ? undoFlag(row, col) : makeFlag(row, col);
+    }
+
+    /**
+     * Close and delete the spill file. The board can't be used after this.
+     * @throws IOException if the file can't be closed or deleted.
+     */
+    public void close() throws IOException {
+        cache.clear();
+        last = null;
+        if (spill != null) {
+            spill.close();
+            spill = null;
+            Files.deleteIfExists(spillPath != null ? spillPath : tempPath);
+        }
+    }
+
+    // Hash a cell with the seed, and compare it with the density.
+    private boolean mineAt(long row, long col) {
+        if (row != (int)row || col != (int)col)
+            return false; // not a cell
+        if (row >= -1 && row <= 1 && col >= -1 && col <= 1)
+            return false; // the start is always safe
+        return (MineOracle.cellHashMixed(mixedSeed, (int)row, (int)col) >>> 11) < threshold;
+    }
+
+    // Get the chunk holding a cell, from the cache or by loading it.
+    private Chunk chunk(int row, int col) {
+        long key = CellQueue.pack(row >> CHUNK_BITS, col >> CHUNK_BITS);
+        if (last != null && last.key == key)
+            return last;
+        Chunk chunk = cache.get(key);
+        if (chunk == null) {
+            chunk = load(key);
+            cache.put(key, chunk);
+        }
+        last = chunk;
+        return chunk;
+    }
+
+    // Make a chunk's mines and counts from the hash, and read its revealed
+    // and flag bits back if it was spilled.
+    private Chunk load(long key) {
+        numLoaded++;
+        Chunk chunk = new Chunk(key);
+        long row0 = (long)CellQueue.rowOf(key) << CHUNK_BITS;
+        long col0 = (long)CellQueue.colOf(key) << CHUNK_BITS;
+        for (int hr = 0; hr < HALO_SIDE; hr++)
+            for (int hc = 0; hc < HALO_SIDE; hc++)
+                halo[hr * HALO_SIDE + hc] = (byte)(mineAt(row0 + hr - 1, col0 + hc - 1) ? 1 : 0);
+        for (int r = 0; r < CHUNK_SIDE; r++) {
+            int h = (r + 1) * HALO_SIDE + 1; // this cell in the halo
+            for (int c = 0; c < CHUNK_SIDE; c++, h++) {
+                int i = r * CHUNK_SIDE + c;
+                if (halo[h] != 0)
+                    chunk.mines[i >>> 6] |= 1L << i;
+                chunk.counts[i] = (byte)(halo[h - HALO_SIDE - 1] + halo[h - HALO_SIDE] + halo[h - HALO_SIDE + 1]
+                                         + halo[h - 1] + halo[h + 1]
+                                         + halo[h + HALO_SIDE - 1] + halo[h + HALO_SIDE] + halo[h + HALO_SIDE + 1]);
+            }
+        }
+
+        if (spill == null)
+            return chunk;
+        try {
+            findEntry(key);
+            long slot = entryBuf.getLong(8) - 1;
+            if (slot >= 0) {
+                read(slotBuf.clear(), slotOffset(slot));
+                slotBuf.flip();
+                slotBuf.asLongBuffer().get(chunk.revealed).get(chunk.flags);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("can't read back a chunk", e);
+        }
+        return chunk;
+    }
+
+    // Write a chunk being dropped from the cache to its slot, if the player
+    // changed it.
+    private void evict(Chunk chunk) {
+        if (last == chunk)
+            last = null;
+        if (!chunk.dirty)
+            return;
+        try {
+            if (spill == null)
+                openSpill();
+            long entry = findEntry(chunk.key);
+            long slot = entryBuf.getLong(8) - 1;
+            boolean isNew = slot < 0;
+            if (isNew) {
+                if (numSpilled == MAX_SPILLED_CHUNKS)
+                    throw new IOException("spill file is full, with " + MAX_SPILLED_CHUNKS + " chunks");
+                slot = numSpilled;
+            }
+            slotBuf.clear();
+            slotBuf.asLongBuffer().put(chunk.revealed).put(chunk.flags);
+            write(slotBuf, slotOffset(slot));
+            if (isNew) {
+                entryBuf.clear();
+                entryBuf.putLong(0, chunk.key).putLong(8, slot + 1);
+                write(entryBuf, entry);
+                numSpilled++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("can't spill a chunk", e);
+        }
+    }
+
+    // Open the spill file, making a temporary one if no path was given. The
+    // temporary file is also deleted when the JVM exits, in case the board
+    // is never closed.
+    private void openSpill() throws IOException {
+        Path path = spillPath;
+        if (path == null) {
+            path = tempPath = Files.createTempFile("minesweeper-endless", ".spill");
+            tempPath.toFile().deleteOnExit();
+        }
+        spill = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                 StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        // Extend the file past the index, so its entries read as zeros.
+        write(ByteBuffer.allocate(1), INDEX_BYTES - 1);
+    }
+
+    // Find a chunk's entry in the spill file's index, or the empty entry
+    // where it would go, and get its file offset. The entry is left in
+    // entryBuf. The index is never more than half full, so this is one or
+    // two reads on average.
+    private long findEntry(long key) throws IOException {
+        int i = (int)((key * 0x9e3779b97f4a7c15L) >>> (64 - INDEX_BITS));
+        while (true) {
+            long offset = (long)i * ENTRY_BYTES;
+            read(entryBuf.clear(), offset);
+            if (entryBuf.getLong(8) == 0 || entryBuf.getLong(0) == key)
+                return offset;
+            i = (i + 1) & (INDEX_ENTRIES - 1);
+        }
+    }
+
+    // File offset of a slot in the spill file.
+    private static long slotOffset(long slot) {
+        return INDEX_BYTES + slot * SLOT_BYTES;
+    }
+
+    // Fill a buffer from the spill file at the given offset.
+    private void read(ByteBuffer buf, long offset) throws IOException {
+        while (buf.hasRemaining()) {
+            int n = spill.read(buf, offset);
+            if (n < 0)
+                throw new IOException("spill file is cut short");
+            offset += n;
+        }
+    }
+
+    // Write all of a buffer to the spill file at the given offset.
+    private void write(ByteBuffer buf, long offset) throws IOException {
+        while (buf.hasRemaining())
+            offset += spill.write(buf, offset);
+    }
+
+    // Bit and count access within a chunk.
+
+    private static int offset(int row, int col) {
+        return (row & (CHUNK_SIDE - 1)) << CHUNK_BITS | (col & (CHUNK_SIDE - 1));
+    }
+
+    private static boolean get(long[] bits, int row, int col) {
+        return get(bits, offset(row, col));
+    }
+
+    private static boolean get(long[] bits, int i) {
+        return (bits[i >>> 6] & (1L << i)) != 0;
+    }
+
+    private static void set(long[] bits, int row, int col) {
+        int i = offset(row, col);
+        bits[i >>> 6] |= 1L << i;
+    }
+
+    private void fireCellChanged(int row, int col) {
+        for (BoardListener l : listeners)
+            l.cellChanged(row, col);
+    }
+
+    /**
+     * The main() program walks a player who never hits a mine a long way
+     * from the start and back, revealing and flagging cells on the way, and
+     * checks that every chunk comes back as it was left. It takes an
+     * optional seed (default 1), difficulty (default hard), and number of
+     * steps (default 100000).
+     */
+    public static void main(String args[]) throws IOException {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 1;
+        String difficulty = args.length > 1 ? args[1] : "hard";
+        int steps = args.length > 2 ? Integer.parseInt(args[2]) : 100000;
+        double density = densityFor(difficulty);
+        if (density < 0) {
+            System.out.println("Unknown difficulty: " + difficulty);
+            return;
+        }
+
+        try (EndlessBoard board = new EndlessBoard(seed, density)) {
+            board.floodReveal(0, 0);
+
+            // Walk away at random, mostly right and down, flagging mines and
+            // revealing everything else.
+            SplittableRandom rng = new SplittableRandom(seed);
+            int[] rows = new int[steps];
+            int[] cols = new int[steps];
+            int r = 0, c = 0;
+            long start = System.nanoTime();
+            for (int k = 0; k < steps; k++) {
+                r += rng.nextInt(-1, 3);
+                c += rng.nextInt(-1, 3);
+                rows[k] = r;
+                cols[k] = c;
+                if (!board.isMine(r, c))
+                    board.click(r, c, Board.LEFT);
+                else if (!board.isFlag(r, c))
+                    board.click(r, c, Board.RIGHT);
+            }
+            long walkNanos = System.nanoTime() - start;
+
+            // Walk back, and check each cell is as it was left.
+            long misses = board.getNumLoaded();
+            int wrong = 0;
+            start = System.nanoTime();
+            for (int k = steps - 1; k >= 0; k--) {
+                boolean mine = board.isMine(rows[k], cols[k]);
+                if (board.isFlag(rows[k], cols[k]) != mine || board.isRevealed(rows[k], cols[k]) == mine)
+                    wrong++;
+            }
+            long backNanos = System.nanoTime() - start;
+            misses = board.getNumLoaded() - misses;
+
+            Runtime rt = Runtime.getRuntime();
+            System.out.printf("Walked %d steps to (%d, %d): %d revealed, %d flags, %s%n",
+                              steps, r, c, board.getNumRevealed(), board.getNumFlags(),
+                              board.isLost() ? "lost" : "still playing");
+            System.out.printf("%d chunks cached, %d spilled, %d loads, about %d MB of heap in use%n",
+                              board.getNumCached(), board.getNumSpilled(), board.getNumLoaded(),
+                              (rt.totalMemory() - rt.freeMemory()) >> 20);
+            System.out.printf("Out: %.2f us/step. Back: %d chunks read back, %.2f us/step, %d cells wrong%n",
+                              walkNanos / 1e3 / steps, misses, backNanos / 1e3 / steps, wrong);
+        }
+    }
+}
@@ -7,8 +7,9 @@
  *  Minesweeper game. This class implements the game window and most
  *  of the game logic.
  * 
- *  Extra Credit: This game auto-reveals all empty cells after the 
- *  first empty cell is selected. The player is able to left click a 
+ *  Extra Credit: This game auto-reveals the connected region of empty
+ *  cells (and the numbered cells around it) when an empty cell is
+ *  selected. The player is able to left click a 
  *  cell to place a marker flag to plan moves. 
  *  Once you reveal all cells other than mines, a winner banner will 
  *  reveal 
@@ -18,23 +19,30 @@
  *----------------------------------------------------------------*/
 
 import GUI.*;
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 /* A <i>Game</i> object manages all information about a minesweeper game as it
  * is being played and displayed on the screen. This includes information about
- * all of the cells (this is stored in a 2-D array of Cell objects), how many
- * flags have been planted, how many mines have been deployed, etc. Game extends
+ * all of the cells (this is stored in a Board, and drawn by a BoardWidget), how
+ * many flags have been planted, how many mines have been deployed, etc. Game
+ * extends
  * Window, so it can be drawn on the screen. It also extends EventListener so it
- * can respond to user interaction.
+ * can respond to user interaction, and BoardListener so it can respond when the
+ * board says the game is over.
  */
-public class Game extends Window implements EventListener {
+public class Game extends Window implements EventListener, BoardListener {
 
   /**
-     * Number of cells tall the game board will be.
+     * Number of cells tall the game board will be, unless another size is
+     * given to the constructor.
      */
   public static final int NUM_ROWS = 20;
 
   /**
-     * Number of cells wide the game board will be.
+     * Number of cells wide the game board will be, unless another size is
+     * given to the constructor.
      */
   public static final int NUM_COLS = 30;
 
@@ -63,35 +71,23 @@ public class Game extends Window implements EventListener {
   // +-- ------------------------------------------------------+
 
   /**
-     * Width of the game window, in pixels.
-     * Equal to 2*MARGIN + GRID_WIDTH
+     * Width of the game window for the default board size, in pixels.
+     * Equal to 2*MARGIN + gridWidth
      * or 2*MARGIN + 2*SPACE + StatusBox.WIDTH, Timer.WIDTH, HelpBox.WIDTH,
-     * whichever is larger.
+     * whichever is larger. Windows for bigger boards are wider.
      */
 
 
   public static final int WIDTH = 700;
 
   /**
-     * Height of the game window, in pixels.
+     * Height of the game window for the default board size, in pixels.
      * Equal to 2*MARGIN + SPACE
-     *     + GRID_HEIGHT
+     *     + gridHeight
      *     + max(StatusBox.Height, Timer.HEIGHT, HelpBox.HEIGHT)
      */
   public static final int HEIGHT = 600; 
 
-  /**
-     * Width of the grid part of the window, in pixels.
-     * Equal to NUM_COLS * Cell.SIZE.
-     */
-  public static final int GRID_WIDTH = NUM_COLS * Cell.SIZE;
-
-  /**
-     * Height of the grid part of the window, in pixels.
-     * Equal to NUM_ROWS * Cell.SIZE.
-     */
-  public static final int GRID_HEIGHT = NUM_ROWS * Cell.SIZE;
-
   /**
      * Margin around the edges of the canvas.
      */
@@ -102,12 +98,24 @@ public class Game extends Window implements EventListener {
      */
   private static final int SPACE = 25;
 
-  // A 2-D array of Cell objects to keep track of the board state.
-  private Cell[][] cells = new Cell[NUM_ROWS][NUM_COLS];
+  /**
+     * Largest size of the grid part of the window, in pixels. Bigger boards
+     * are shown through a viewport that can be scrolled and zoomed.
+     */
+  private static final int MAX_GRID_WIDTH = 800;
+  private static final int MAX_GRID_HEIGHT = 500;
+
+  // The board state: mines, revealed cells, flags and neighbor counts.
+  private Board board;
+
+  // The widget that draws the visible part of the board.
+  private BoardWidget grid;
 
-  private int numMines = 0;    // number of mines deployed
-  private int numRevealed = 0; // number of cells revealed so far
-  private int numFlags = 0; 
+  // Size of the grid part of the window, i.e. numCols * Cell.SIZE wide by
+  // numRows * Cell.SIZE tall up to MAX_GRID_WIDTH by MAX_GRID_HEIGHT, and of
+  // the whole window, in pixels.
+  private int gridWidth, gridHeight;
+  private int windowWidth, windowHeight;
 
   // Whether or not the game has been won.
   private boolean gameWon = false;
@@ -131,43 +139,82 @@ public class Game extends Window implements EventListener {
   private HelpBox help;
 
   /**
-     * Constructor: Initializes a new game, but does not deploy any mines, plant
-     * any flags, etc. The difficulty is either "easy", "medium", or "hard", and
-     * will be used to load the proper top scores file. Name is used as the
-     * user's name.
+     * Frames per second the window is animated at by play(), so the timer
+     * counts up on the screen.
+     */
+  public static final double TIMER_FPS = 1.0;
+
+  // Records the clicks, and the file to save them to, or null if the game
+  // isn't being recorded.
+  private GameRecorder recorder;
+  private String replayFile;
+
+  // Saves the game after every move, or null if it isn't being saved.
+  private SaveGame save;
+
+  /**
+     * Constructor: Initializes a new game on a board of the default size, 
+     * NUM_ROWS by NUM_COLS, but does not deploy any mines, plant any flags,
+     * etc. The difficulty is either "easy", "medium", or "hard", and will be
+     * used to load the proper top scores file. Name is used as the user's
+     * name.
      */
   public Game(String name, String difficulty) {
-    super("Minesweeper!", WIDTH, HEIGHT);
+    this(name, difficulty, NUM_ROWS, NUM_COLS);
+  }
+
+  /**
+     * Constructor: Initializes a new game on a board with the given number of
+     * rows and columns. If the board is too big to fit in the window, the user
+     * can scroll and zoom to see all of it.
+     */
+  public Game(String name, String difficulty, int numRows, int numCols) {
+    this(name, difficulty, new Board(numRows, numCols));
+  }
+
+  /**
+     * Constructor: Initializes a game on an existing board, e.g. one restored
+     * by SaveGame, which may already have mines deployed and cells revealed.
+     */
+  public Game(String name, String difficulty, Board board) {
+    super("Minesweeper!", windowWidth(board.getNumCols()), windowHeight(board.getNumRows()));
 
+    int numRows = board.getNumRows();
+    int numCols = board.getNumCols();
     this.username = name;
     this.difficulty = difficulty;
+    this.board = board;
+    this.gridWidth = gridWidth(numCols);
+    this.gridHeight = gridHeight(numRows);
+    this.windowWidth = windowWidth(numCols);
+    this.windowHeight = windowHeight(numRows);
 
     // Create the background
     setBackgroundColor(Canvas.DARK_GRAY);
 
     // Create a border around the grid
-    Box border = new Box(MARGIN-1.5, MARGIN-1.5, GRID_WIDTH+3, GRID_HEIGHT+3);
+    Box border = new Box(MARGIN-1.5, MARGIN-1.5, gridWidth+3, gridHeight+3);
     border.setBackgroundColor(null);
     border.setBorderColor(Canvas.BLACK);
     add(border);
 
     // Create the help boxes
     help = new HelpBox(
-      WIDTH - MARGIN - HelpBox.WIDTH,
-      HEIGHT - MARGIN - HelpBox.HEIGHT);
+      windowWidth - MARGIN - HelpBox.WIDTH,
+      windowHeight - MARGIN - HelpBox.HEIGHT);
     add(help);
 
     // Creates the timer box
     timer = new Timer( 
-      WIDTH - MARGIN - HelpBox.WIDTH - SPACE - Timer.WIDTH,
-      HEIGHT - MARGIN - Timer.HEIGHT);
+      windowWidth - MARGIN - HelpBox.WIDTH - SPACE - Timer.WIDTH,
+      windowHeight - MARGIN - Timer.HEIGHT);
     add(timer);
 
 
     // Creates the statusbox 
     status = new StatusBox( this, 
-                           WIDTH - MARGIN - HelpBox.WIDTH - SPACE - Timer.WIDTH - SPACE - StatusBox.WIDTH, 
-                           HEIGHT - MARGIN - StatusBox.HEIGHT);
+                           windowWidth - MARGIN - HelpBox.WIDTH - SPACE - Timer.WIDTH - SPACE - StatusBox.WIDTH, 
+                           windowHeight - MARGIN - StatusBox.HEIGHT);
     add(status);  
 
     // FINISHED: Create and add the other info boxes, besides help. Also,
@@ -178,68 +225,126 @@ public class Game extends Window implements EventListener {
     // Here is a giant red label, centered exactly in the middle of where
     // the game grid was meant to go...
 
-    //FINISHED: Draws 600 untouched cells 
-    int row, col;    
-    for (row =0; row < NUM_ROWS; row++) { 
-      for (col = 0; col< NUM_COLS; col++) { 
-        cells[row][col] = new Cell(MARGIN+Cell.SIZE*col, MARGIN+Cell.SIZE*row);
-        add(cells[row][col]); 
-      } 
-    } 
+    //FINISHED: Draws the untouched cells, all through one widget 
+    grid = new BoardWidget(board, MARGIN, MARGIN, gridWidth, gridHeight);
+    add(grid);
+
+    // We handle the end of the game, which the board reports.
+    board.addListener(this);
 
   } // end game 
 
+  // Width of the grid part of the window for a board with the given number
+  // of columns.
+  private static int gridWidth(int numCols) {
+    return (int)Math.min(MAX_GRID_WIDTH, (long)numCols * Cell.SIZE);
+  }
+
+  // Height of the grid part of the window for a board with the given number
+  // of rows.
+  private static int gridHeight(int numRows) {
+    return (int)Math.min(MAX_GRID_HEIGHT, (long)numRows * Cell.SIZE);
+  }
+
+  // Width of the window needed for a board with the given number of columns.
+  private static int windowWidth(int numCols) {
+    return Math.max(WIDTH, 2*MARGIN + gridWidth(numCols));
+  }
+
+  // Height of the window needed for a board with the given number of rows.
+  private static int windowHeight(int numRows) {
+    return 2*MARGIN + SPACE + gridHeight(numRows)
+      + Math.max(StatusBox.HEIGHT, Math.max(Timer.HEIGHT, HelpBox.HEIGHT));
+  }
+
   /**
      * Get the number of mines that are deployed.
      */
   public int getNumMinesDeployed() {
-    return numMines;
+    return board.getNumMines();
   }
 
   /**
      * Get the number of hidden cells remaining to be revealed.
      */
-  public int getNumCellsRemaining() {
-    return NUM_ROWS * NUM_COLS - numRevealed;
+  public long getNumCellsRemaining() {
+    return board.getNumCellsRemaining();
+  }
+
+  /**
+     * Get the board holding the state of this game.
+     */
+  public Board getBoard() {
+    return board;
   }
 
   /**
      * Deploy the given number of mines. This gets called once during game
      * setup. The game doesn't actually begin officially until the user clicks
-     * a cell, so the timer should not start yet.
+     * a cell, so the timer should not start yet. The mines are placed using a
+     * generator seeded from StdRandom, so StdRandom.setSeed() still decides the
+     * deployment.
      */
   public void deployMines(int mines) {
-    // FINISHED: Add code here to deploy mines by calling makeMine() on some of
-    // the cells, at random. Use StdRandom() for picking random numbers.
-    // Each cell also has a variable to track how many of its neighboring
-    // cells contain a mine, so you will need to update that variable too.
-    // See the increementNeighborMineCount() and setNeighborMineCount()
-    // functions in the Cell class, which are meant for this purpose
-
-    //  picks random cells to plant mines 
-    for (int i =0; i<mines; i++){
-      numMines++; 
-      int pickRow = StdRandom.uniform(0, NUM_ROWS-1); 
-      int pickCol = StdRandom.uniform(0, NUM_COLS-1);
-      if (!cells[pickRow][pickCol].isMine() ){
-        cells[pickRow][pickCol].makeMine(); 
-
-
-        // keeps track of and increments neighbor mine count 
-        for (int a = pickRow-1; a <= pickRow+1; a++) { 
-          for (int b = pickCol-1; b <= pickCol+1; b++){ 
-            if (!(a == pickRow && b == pickCol)) { 
-              if (a>=0 && a<NUM_ROWS && b>=0 && b<NUM_COLS){
-                cells[a][b].incrementNeighborMineCount();
-              } 
-            }	
-          } // end of col for 
-        }// end fo row for 
+    deployMines(mines, new SplittableRandom(StdRandom.uniform(Integer.MAX_VALUE)));
+  }
 
-      }
-    } // end for 
+  /**
+     * Deploy exactly the given number of mines, at distinct cells picked
+     * with the given random number generator. The board keeps track of and
+     * increments the neighbor mine counts.
+     */
+  public void deployMines(int mines, RandomGenerator rng) {
+    board.deployMines(mines, rng);
   } // end deployMines 
 
+  /**
+     * Deploy the mines where a MineOracle says they are, so any cell can be
+     * asked about without the board.
+     */
+  public void deployMines(MineOracle oracle) {
+    board.deployMines(oracle);
+  }
+
+
+  /**
+     * Record every click of this game, and save the recording as a Replay to
+     * the given file when the game ends. The recorder must be for a board
+     * like this one, with mines deployed from its seed.
+     */
+  public void setRecorder(GameRecorder recorder, String filename) {
+    this.recorder = recorder;
+    this.replayFile = filename;
+  }
+
+  /**
+     * Save this game after every move, and set the timer to the time the save
+     * was made at, e.g. for a game just restored. The save must be for this
+     * game's board. The save file is deleted when the game ends.
+     */
+  public void setSaveGame(SaveGame save) {
+    this.save = save;
+    timer.reset(save.getElapsedSeconds());
+  }
+
+  /**
+     * Start the timer now, instead of at the first reveal, e.g. for a game
+     * whose first cell was opened for the player.
+     */
+  public void startTimer() {
+    timer.startCounting();
+  }
+
+  /**
+     * Show the game window and wait for the user to play the game. The GUI
+     * package repaints the window after every mouse click and key press, so
+     * the board is redrawn whenever it changes. Only the timer changes on its
+     * own, once a second, so the window is animated at TIMER_FPS frames per
+     * second, just often enough to show each second.
+     */
+  public void play() {
+    showAndAnimate(TIMER_FPS);
+  }
 
   /**
      * Respond to a mouse click. This function will be called each time the user
@@ -263,117 +368,125 @@ public class Game extends Window implements EventListener {
     if (!button.equals("left") && !button.equals("right"))
       return;
 
+    // Calculate which cell the user clicked.
+    int row = grid.rowAt(y);
+    int col = grid.colAt(x);
+
     // If the user clicked outside of the game grid, ignore it.
-    if (x < MARGIN || y < MARGIN
-        || x >= MARGIN + GRID_WIDTH || y >= MARGIN + GRID_HEIGHT) {
+    if (row < 0 || col < 0) {
       return;
     }
 
-    // Calculate which cell the user clicked.
-    int row = (int)((y - MARGIN) / Cell.SIZE);
-    int col = (int)((x - MARGIN) / Cell.SIZE);
-
     // FINISHED: Add code here to react to mouse clicks.
     StdOut.printf("You clicked row %d column %d with button %s\n", row, col, button);
 
-    // Reveals cell if user left clicks 
-    if (button.equals("left") ) {
-
-      // Checks if the left clicked cell was already revealed 
-      if (!cells[row][col].isRevealed()) { 
-        cells[row][col].reveal(); 
-        cells[row][col].getNeighborMineCount(); 
-        numRevealed++;
-        if (numRevealed >=1 ){ 
-          timer.startCounting(); 
-        }
-
-
-        // auto-reveals all empty cells 
-        if (cells[row][col].getNeighborMineCount() == 0) { 
-          for (int r =0; r < NUM_ROWS; r++) { 
-            for (int c = 0; c< NUM_COLS; c++) { 
-              if (cells[r][c].getNeighborMineCount() == 0){ 
-                if (cells[r][c].isMine == false ){ 
-                  cells[r][c].reveal(); 
-                  numRevealed++; 
-                } 
-              } 
-            } 
-          }
-        }
-
-      } // ends if isRevealed 
-
-      // if reveals mine, game will end 
-      if (cells[row][col].isMine()){ 
-        gameLost = true; 
-        timer.stopCounting(); 
-
-        // reveals all cells if game is lost 
-        for (int r =0; r < NUM_ROWS; r++) { 
-          for (int c = 0; c< NUM_COLS; c++) { 
-            cells[r][c].reveal();  
-            numRevealed = 600;  
-
-            // Declares and prints label if user lost  
-            Label lost = new Label(
-              MARGIN + NUM_COLS * Cell.SIZE /2,
-              MARGIN + NUM_ROWS * Cell.SIZE /2,
-              "I'm sorry, but you lost. Better luck next time");
-            lost.setFont("SansSerif Bold", 24);
-            lost.setForegroundColor(Canvas.WHITE);
-            lost.setBackgroundColor(Canvas.RED);
-            lost.setBorderColor(Canvas.BLACK);
-            add(lost);
-
-          }
-        }
+    int b = button.equals("left") ? Board.LEFT : Board.RIGHT;
+
+    // Starts the timer on the first reveal
+    if (b == Board.LEFT && !board.isRevealed(row, col))
+      timer.startCounting();
+
+    // Records the click before making it, since the click that ends the
+    // game saves the replay through gameOver()
+    if (recorder != null)
+      recorder.record(row, col, b);
+
+    // Left click reveals the cell, and auto-reveals the connected region of
+    // empty cells around it if it has no neighboring mines. Right click
+    // plants a flag, or deletes it if the cell is already flagged. If a
+    // reveal hit a mine or cleared the board, the board tells us through
+    // gameOver()
+    board.click(row, col, b);
+
+    // Autosaves the move, unless it ended the game (gameOver() has deleted
+    // the save by then)
+    if (save != null && !board.isGameOver()) {
+      try {
+        save.save(timer.getElapsedSeconds());
+      } catch (IOException e) {
+        System.out.println("Can't save the game: " + e.getMessage());
       }
+    }
+
+    return; 
+
+  } // end of mouseclick 
+
+  /**
+     * Respond to a single cell of the board changing. The BoardWidget draws
+     * the cells straight from the board, so there is nothing to do here.
+     */
+  public void cellChanged(int row, int col) {
+  }
 
+  /**
+     * Respond to many cells of the board changing at once. The BoardWidget
+     * draws the cells straight from the board, so there is nothing to do here.
+     */
+  public void boardChanged() {
+  }
+
+  /**
+     * Respond to the game being won or lost. This stops the timer, reveals all
+     * of the cells, and shows a banner.
+     * @param won true if the game was won, false if it was lost.
+     */
+  public void gameOver(boolean won) {
+    timer.stopCounting(); 
+
+    // if reveals mine, game will end 
+    if (!won){ 
+      gameLost = true; 
+
+      // Declares and prints label if user lost  
+      Label lost = new Label(
+        MARGIN + gridWidth /2,
+        MARGIN + gridHeight /2,
+        "I'm sorry, but you lost. Better luck next time");
+      lost.setFont("SansSerif Bold", 24);
+      lost.setForegroundColor(Canvas.WHITE);
+      lost.setBackgroundColor(Canvas.RED);
+      lost.setBorderColor(Canvas.BLACK);
+      add(lost);
+    } else { 
       // game is won if all cells other than mines are revealed 
-      if ( getNumCellsRemaining() == numMines-1) { 
-        gameWon = true; 
-        timer.stopCounting(); 
-        System.out.println("Won");
-
-        // Declare and print winner's banner 
-        Label won = new Label(
-          MARGIN + NUM_COLS * Cell.SIZE /2,
-          MARGIN + NUM_ROWS * Cell.SIZE /2,
-          "Congrats! You cleared the board. ");
-        won.setFont("SansSerif Bold", 30);
-        won.setForegroundColor(Canvas.WHITE);
-        won.setBackgroundColor(Canvas.GREEN);
-        won.setBorderColor(Canvas.BLACK);
-        add(won);
-
-        for (int r =0; r < NUM_ROWS; r++) { 
-          for (int c = 0; c< NUM_COLS; c++) { 
-            cells[r][c].reveal();  
-            numRevealed = 600; 
-          }
-        }
+      gameWon = true; 
+      System.out.println("Won");
+
+      // Declare and print winner's banner 
+      Label banner = new Label(
+        MARGIN + gridWidth /2,
+        MARGIN + gridHeight /2,
+        "Congrats! You cleared the board. ");
+      banner.setFont("SansSerif Bold", 30);
+      banner.setForegroundColor(Canvas.WHITE);
+      banner.setBackgroundColor(Canvas.GREEN);
+      banner.setBorderColor(Canvas.BLACK);
+      add(banner);
+    }
 
+    // saves the replay, if recording 
+    if (recorder != null) {
+      recorder.finish(won, timer.getElapsedSeconds());
+      try {
+        recorder.save(replayFile);
+      } catch (IOException e) {
+        System.out.println("Can't save the replay: " + e.getMessage());
       }
-    } // end of left click 
-
-    if (button.equals("right")) { 
-      // plants flag if user right clicks 
-      if (!(cells[row][col].isRevealed()) && !(cells[row][col].isFlag())  ) { 
-        cells[row][col].makeFlag(); 
-        numFlags++; 
-        // deletes flag if user reclicks flagged cell 
-      }  else if (!(cells[row][col].isRevealed()) && cells[row][col].isFlag()) {
-        cells[row][col].undoFlag();
-        numFlags--; 
-      }
-
-    } // end of right click 
+    }
 
-    return; 
+    // a finished game can't be restored, so delete its save 
+    if (save != null) {
+      try {
+        save.delete();
+      } catch (IOException e) {
+        System.out.println("Can't delete the saved game: " + e.getMessage());
+      }
+    }
 
-  } // end of mouseclick 
+    // reveals all cells once the game is over 
+    board.revealAll(); 
+  } // end of gameOver 
 
   /**
      * Respond to key presses. This function will be called each time the user
@@ -390,6 +503,38 @@ public class Game extends Window implements EventListener {
       case 'Q': 
         hide(); // user wants to quit
         break;
+      // scroll and zoom the board 
+      case 'w': 
+        grid.scroll(-1, 0);
+        break;
+      case 's': 
+        grid.scroll(1, 0);
+        break;
+      case 'a': 
+        grid.scroll(0, -1);
+        break;
+      case 'd': 
+        grid.scroll(0, 1);
+        break;
+      case 'W': 
+        grid.scroll(-grid.getVisibleRows(), 0);
+        break;
+      case 'S': 
+        grid.scroll(grid.getVisibleRows(), 0);
+        break;
+      case 'A': 
+        grid.scroll(0, -grid.getVisibleCols());
+        break;
+      case 'D': 
+        grid.scroll(0, grid.getVisibleCols());
+        break;
+      case '+': 
+      case '=': 
+        grid.zoomIn(2);
+        break;
+      case '-': 
+        grid.zoomOut(2);
+        break;
       default:
         break; // anything else is ignored
     }
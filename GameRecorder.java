@@ -0,0 +1,160 @@
+/*----------------------------------------------------------------
+ *  Author:   Kayleigh Crosby
+ *  Email:    kacros23@g.holycross.edu
+ *  Written:  10/17/2026
+ *
+ *  GameRecorder writes down every click of a game as it is
+ *  played, so it can be saved as a Replay.
+ *----------------------------------------------------------------*/
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A <i>GameRecorder</i> records the clicks of one game, in the compact
+ * encoding described in Replay, into a byte array that grows as needed.
+ * Recording a click costs a few byte writes and no other allocation, so it
+ * adds nothing noticeable to handling the click itself.
+ *
+ * Click times are measured from the first click recorded, and stored in whole
+ * Replay.TICK_MILLIS units. Each gap is taken between the rounded times of the
+ * two clicks, not rounded on its own, so rounding never adds up over a long
+ * game.
+ */
+public class GameRecorder {
+
+    private final long seed;
+    private final String difficulty;
+    private final int numRows;
+    private final int numCols;
+    private final int numMines;
+    private final int firstClickSafe;
+    private final boolean oracle;
+
+    private byte[] moves = new byte[256];
+    private int length = 0;
+    private int numMoves = 0;
+
+    // Cell index and time (in ticks) of the last click, and System.nanoTime()
+    // at the first click.
+    private long lastCell = 0;
+    private long lastTick = 0;
+    private long startNanos;
+
+    private boolean won = false;
+    private int seconds = -1;
+
+    /**
+     * Initialize a recorder for a game whose mines were deployed from the
+     * given seed, as in Replay.newBoard(), with no first click safety.
+     */
+    public GameRecorder(long seed, String difficulty, int numRows, int numCols, int numMines) {
+        this(seed, difficulty, numRows, numCols, numMines, Board.SAFE_NONE);
+    }
+
+    /**
+     * Initialize a recorder for a game whose mines were deployed from the
+     * given seed, and moved away from the first click with the given mode
+     * and the same seed (see Board.setFirstClickSafe).
+     */
+    public GameRecorder(long seed, String difficulty, int numRows, int numCols, int numMines,
+                        int firstClickSafe) {
+        this(seed, difficulty, numRows, numCols, numMines, firstClickSafe, false);
+    }
+
+    /**
+     * Initialize a recorder for a game whose mines were deployed from the
+     * given seed, by a MineOracle if oracle is true, and moved away from the
+     * first click with the given mode and the same seed.
+     */
+    public GameRecorder(long seed, String difficulty, int numRows, int numCols, int numMines,
+                        int firstClickSafe, boolean oracle) {
+        this.seed = seed;
+        this.difficulty = difficulty;
+        this.numRows = numRows;
+        this.numCols = numCols;
+        this.numMines = numMines;
+        this.firstClickSafe = firstClickSafe;
+        this.oracle = oracle;
+    }
+
+    /**
+     * Record a click made just now.
+     * @param button Board.LEFT or Board.RIGHT.
+     */
+    public void record(int row, int col, int button) {
+        long now = System.nanoTime();
+        if (numMoves == 0)
+            startNanos = now;
+        record(row, col, button, (now - startNanos) / 1000000);
+    }
+
+    /**
+     * Record a click made the given number of milliseconds after the first
+     * click. Times must not go backwards.
+     * @param button Board.LEFT or Board.RIGHT.
+     * @throws IllegalArgumentException if the click is off the board, the
+     * button is unknown, or the time is earlier than the last click's.
+     */
+    public void record(int row, int col, int button, long millis) {
+        if (row < 0 || row >= numRows || col < 0 || col >= numCols)
+            throw new IllegalArgumentException("click is off the board: " + row + ", " + col);
+        if (button != Board.LEFT && button != Board.RIGHT)
+            throw new IllegalArgumentException("no such button: " + button);
+        long tick = millis / Replay.TICK_MILLIS;
+        if (tick < lastTick)
+            throw new IllegalArgumentException("click at " + millis + " ms is out of order");
+        long cell = (long)row * numCols + col;
+        long delta = cell - lastCell;
+        long zigzag = (delta << 1) ^ (delta >> 63);
+        writeVarint((zigzag << 1) | button);
+        writeVarint(tick - lastTick);
+        lastCell = cell;
+        lastTick = tick;
+        numMoves++;
+    }
+
+    /**
+     * Get the number of clicks recorded.
+     */
+    public int getNumMoves() {
+        return numMoves;
+    }
+
+    /**
+     * Record how the game ended, as the player's game saw it.
+     * @param won true if the game was won.
+     * @param seconds the time shown when the game ended.
+     */
+    public void finish(boolean won, int seconds) {
+        this.won = won;
+        this.seconds = seconds;
+    }
+
+    /**
+     * Get a Replay of the clicks recorded so far.
+     */
+    public Replay toReplay() {
+        return new Replay(seed, difficulty, numRows, numCols, numMines, firstClickSafe, oracle,
+                          Arrays.copyOf(moves, length), length, numMoves, won, seconds);
+    }
+
+    /**
+     * Save a Replay of the clicks recorded so far to a file.
+     * @throws IOException if the file can't be written.
+     */
+    public void save(String filename) throws IOException {
+        toReplay().save(filename);
+    }
+
+    // Append a varint to the moves, 7 bits per byte, low bits first.
+    private void writeVarint(long value) {
+        if (length + 10 > moves.length)
+            moves = Arrays.copyOf(moves, 2 * moves.length);
+        while ((value & ~0x7fL) != 0) {
+            moves[length++] = (byte)((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        moves[length++] = (byte)value;
+    }
+}
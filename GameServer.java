@@ -0,0 +1,406 @@
+/*----------------------------------------------------------------
+ *  Author:   Kayleigh Crosby
+ *  Email:    kacros23@g.holycross.edu
+ *  Written:  10/17/2026
+ *
+ *  GameServer hosts many headless games at once, for players
+ *  connecting over TCP.
+ *
+ *  Example: java GameServer 4040 # listen for players on port 4040
+ *
+ *----------------------------------------------------------------*/
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A <i>GameServer</i> lets many players each play their own game of
+ * minesweeper in one JVM, on headless Boards instead of Game windows. Every
+ * connection gets its own virtual thread, which holds that player's Board and
+ * is the only thread that ever touches it, so sessions need no locks and
+ * thousands of them cost little more than their boards.
+ *
+ * The protocol is one command per line, each answered by one line:
+ *   - NEW seed difficulty [rows cols] [ORACLE]: start a new game, with mines
+ *     deployed from the seed just as Minesweeper does, and the number of
+ *     mines for the difficulty. With ORACLE, the mines are placed by a
+ *     MineOracle for the seed, as with Minesweeper -q. As in Minesweeper,
+ *     the first REVEAL never hits a mine. Answers "OK rows cols mines".
+ *   - REVEAL r c: reveal a cell, as a left click would.
+ *   - FLAG r c: plant or remove a flag, as a right click would.
+ *   - CELLS r0 c0 r1 c1: list the revealed and flagged cells in rows r0 to
+ *     r1 and columns c0 to c1, at most MAX_LISTED cells in all. Answers
+ *     "OK n" then the n cells as "r c x". Cells not listed are hidden.
+ *   - QUIT: end the session. Answers "BYE".
+ * REVEAL and FLAG answer "OK status n", where status is PLAYING, WON, or LOST,
+ * then the n cells that changed as "r c x", where x is the neighbor mine
+ * count (0 to 8), * for a mine, F for a flag, or H for a hidden cell whose
+ * flag was removed. If more than MAX_LISTED cells changed, the answer is
+ * "OK status REFRESH n" instead, and the player should ask for the cells
+ * they need with CELLS. Anything wrong gets "ERR message", and the session
+ * goes on.
+ *
+ * Each board is at most MAX_CELLS cells. Every session is charged for the
+ * memory it can use: SESSION_BYTES for the connection, plus BOARD_BYTES and
+ * the board's storage (see Board.storageBytes()) while it has a game. All
+ * the sessions together can't be charged more than MAX_MEMORY_BYTES, so no
+ * one player, and no crowd of them, can take all of the server's memory. A
+ * player who connects when the server is full is told so and hung up on,
+ * and a NEW that doesn't fit is turned away, leaving the current game as it
+ * was.
+ */
+public class GameServer {
+
+    /**
+     * The port the server listens on by default.
+     */
+    public static final int DEFAULT_PORT = 4040;
+
+    /**
+     * Most cells allowed on one session's board.
+     */
+    public static final long MAX_CELLS = 1L << 20;
+
+    /**
+     * Most bytes of memory all the sessions together may be charged for.
+     */
+    public static final long MAX_MEMORY_BYTES = 1L << 28;
+
+    /**
+     * Bytes charged for each connection: its reader and writer buffers, its
+     * virtual thread, and its Session.
+     */
+    public static final long SESSION_BYTES = 64 * 1024;
+
+    /**
+     * Bytes charged for each board, on top of its storage: the Board object,
+     * its flood queue, and the session's list of changed cells.
+     */
+    public static final long BOARD_BYTES = 4 * 1024;
+
+    /**
+     * Most cells listed in one answer.
+     */
+    public static final int MAX_LISTED = 4096;
+
+    /**
+     * How long a connection may sit idle before it is closed.
+     */
+    public static final int IDLE_MILLIS = 10 * 60 * 1000;
+
+    private final ServerSocket server;
+
+    // Sessions open now, and games started since the server started.
+    private final AtomicInteger numSessions = new AtomicInteger();
+    private final AtomicLong numGames = new AtomicLong();
+
+    // Bytes all the sessions are charged for now.
+    private final AtomicLong numBytes = new AtomicLong();
+
+    /**
+     * Initialize a server listening on the given port of every interface, or
+     * on any free port if it is 0.
+     * @throws IOException if the port can't be opened.
+     */
+    public GameServer(int port) throws IOException {
+        this(port, null);
+    }
+
+    /**
+     * Initialize a server listening on the given port of one interface, e.g.
+     * InetAddress.getLoopbackAddress() to only allow players on this machine.
+     * @throws IOException if the port can't be opened.
+     */
+    public GameServer(int port, InetAddress address) throws IOException {
+        server = new ServerSocket(port, 1024, address);
+    }
+
+    /**
+     * Get the port the server is listening on.
+     */
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    /**
+     * Get the number of players connected now.
+     */
+    public int getNumSessions() {
+        return numSessions.get();
+    }
+
+    /**
+     * Get the number of games started since the server started.
+     */
+    public long getNumGames() {
+        return numGames.get();
+    }
+
+    /**
+     * Accept players until close() is called, starting a virtual thread for
+     * each one. This blocks the calling thread.
+     */
+    public void serve() {
+        try (ExecutorService sessions = Executors.newVirtualThreadPerTaskExecutor()) {
+            while (!server.isClosed()) {
+                Socket socket;
+                try {
+                    socket = server.accept();
+                } catch (IOException e) {
+                    if (!server.isClosed())
+                        System.out.println("Can't accept a player: " + e.getMessage());
+                    continue;
+                }
+                sessions.submit(() -> run(socket));
+            }
+        }
+    }
+
+    /**
+     * Stop accepting players. Players already connected may finish their
+     * sessions.
+     * @throws IOException if the port can't be closed.
+     */
+    public void close() throws IOException {
+        server.close();
+    }
+
+    // Charge bytes of memory to the sessions, or give them back if bytes is
+    // negative. Returns false, charging nothing, if it would take more than
+    // MAX_MEMORY_BYTES.
+    private boolean charge(long bytes) {
+        if (numBytes.addAndGet(bytes) > MAX_MEMORY_BYTES && bytes > 0) {
+            numBytes.addAndGet(-bytes);
+            return false;
+        }
+        return true;
+    }
+
+    // Talk to one player until they quit or disconnect.
+    private void run(Socket socket) {
+        if (!charge(SESSION_BYTES)) {
+            try (Socket s = socket) {
+                s.getOutputStream().write("ERR server is full, try again later\n"
+                                          .getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                // The player went away.
+            }
+            return;
+        }
+        numSessions.incrementAndGet();
+        try (Socket s = socket) {
+            s.setTcpNoDelay(true);
+            s.setSoTimeout(IDLE_MILLIS);
+            BufferedReader in = new BufferedReader(
+                new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+            Writer out = new BufferedWriter(
+                new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8));
+            Session session = new Session();
+            try {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String reply = session.handle(line.trim());
+                    out.write(reply);
+                    out.write('\n');
+                    out.flush();
+                    if (reply.equals("BYE"))
+                        break;
+                }
+            } finally {
+                session.endGame();
+            }
+        } catch (SocketTimeoutException e) {
+            // Idle too long, just hang up.
+        } catch (IOException e) {
+            // The player went away.
+        } finally {
+            numSessions.decrementAndGet();
+            charge(-SESSION_BYTES);
+        }
+    }
+
+    // The game of one player. Only the player's thread uses it.
+    private final class Session implements BoardListener {
+
+        private Board board;
+
+        // Bytes this session is charged for its board, or 0 if it has none.
+        private long boardBytes = 0;
+
+        // Cells changed by the current command, packed with CellQueue.pack().
+        // Only the first MAX_LISTED are kept, but all are counted.
+        private long[] changed = new long[64];
+        private int numChanged = 0;
+
+        // Carry out one command, and return the reply.
+        String handle(String line) {
+            String[] words = line.split("\\s+");
+            try {
+                switch (words[0].toUpperCase()) {
+                    case "NEW":
+                        return newGame(words);
+                    case "REVEAL":
+                        return click(words, Board.LEFT);
+                    case "FLAG":
+                        return click(words, Board.RIGHT);
+                    case "CELLS":
+                        return cells(words);
+                    case "QUIT":
+                        return "BYE";
+                    default:
+                        return "ERR unknown command: " + words[0];
+                }
+            } catch (NumberFormatException e) {
+                return "ERR not a number: " + e.getMessage();
+            }
+        }
+
+        // NEW seed difficulty [rows cols] [ORACLE]
+        private String newGame(String[] words) {
+            boolean oracle = words[words.length - 1].equalsIgnoreCase("ORACLE");
+            int length = oracle ? words.length - 1 : words.length;
+            if (length != 3 && length != 5)
+                return "ERR usage: NEW seed difficulty [rows cols] [ORACLE]";
+            long seed = Long.parseLong(words[1]);
+            String difficulty = words[2].toLowerCase();
+            int rows = Game.NUM_ROWS, cols = Game.NUM_COLS;
+            if (length == 5) {
+                rows = Integer.parseInt(words[3]);
+                cols = Integer.parseInt(words[4]);
+            }
+            long cells = (long)rows * cols;
+            if (rows <= 0 || cols <= 0 || cells > MAX_CELLS)
+                return "ERR board must be from 1 to " + MAX_CELLS + " cells";
+            int mines = Minesweeper.minesFor(difficulty, rows, cols);
+            if (mines < 0)
+                return "ERR unknown difficulty: " + difficulty;
+            // Charge for the new board in place of the current one, before
+            // giving the current one up, so a NEW that doesn't fit leaves it.
+            long bytes = BOARD_BYTES + Board.storageBytes(rows, cols);
+            if (!charge(bytes - boardBytes))
+                return "ERR server is full, try a smaller board";
+            boardBytes = bytes;
+            board = new Board(rows, cols);
+            if (oracle)
+                board.deployMines(new MineOracle(seed, rows, cols, mines));
+            else
+                board.deployMines(mines, new SplittableRandom(seed));
+            board.setFirstClickSafe(Board.SAFE_CELL, seed);
+            board.addListener(this);
+            numGames.incrementAndGet();
+            return "OK " + rows + " " + cols + " " + mines;
+        }
+
+        // REVEAL r c or FLAG r c
+        private String click(String[] words, int button) {
+            if (board == null)
+                return "ERR no game, start one with NEW";
+            if (words.length != 3)
+                return "ERR usage: " + words[0].toUpperCase() + " r c";
+            int row = Integer.parseInt(words[1]);
+            int col = Integer.parseInt(words[2]);
+            if (!board.inBounds(row, col))
+                return "ERR cell is off the board";
+            numChanged = 0;
+            board.click(row, col, button);
+
+            StringBuilder reply = new StringBuilder(32 + 8 * Math.min(numChanged, MAX_LISTED));
+            reply.append("OK ")
+                .append(board.isWon() ? "WON" : board.isLost() ? "LOST" : "PLAYING");
+            if (numChanged > MAX_LISTED)
+                return reply.append(" REFRESH ").append(numChanged).toString();
+            reply.append(' ').append(numChanged);
+            for (int k = 0; k < numChanged; k++)
+                appendCell(reply, CellQueue.rowOf(changed[k]), CellQueue.colOf(changed[k]));
+            return reply.toString();
+        }
+
+        // CELLS r0 c0 r1 c1
+        private String cells(String[] words) {
+            if (board == null)
+                return "ERR no game, start one with NEW";
+            if (words.length != 5)
+                return "ERR usage: CELLS r0 c0 r1 c1";
+            int r0 = Math.max(Integer.parseInt(words[1]), 0);
+            int c0 = Math.max(Integer.parseInt(words[2]), 0);
+            int r1 = Math.min(Integer.parseInt(words[3]), board.getNumRows() - 1);
+            int c1 = Math.min(Integer.parseInt(words[4]), board.getNumCols() - 1);
+            if (r0 > r1 || c0 > c1)
+                return "OK 0";
+            if ((long)(r1 - r0 + 1) * (c1 - c0 + 1) > MAX_LISTED)
+                return "ERR at most " + MAX_LISTED + " cells at once";
+            StringBuilder cells = new StringBuilder();
+            int n = 0;
+            for (int r = r0; r <= r1; r++) {
+                for (int c = c0; c <= c1; c++) {
+                    if (board.isRevealed(r, c) || board.isFlag(r, c)) {
+                        appendCell(cells, r, c);
+                        n++;
+                    }
+                }
+            }
+            return "OK " + n + cells;
+        }
+
+        // Append " r c x" for a cell, as described above.
+        private void appendCell(StringBuilder reply, int r, int c) {
+            reply.append(' ').append(r).append(' ').append(c).append(' ');
+            if (board.isFlag(r, c))
+                reply.append('F');
+            else if (!board.isRevealed(r, c))
+                reply.append('H');
+            else if (board.isMine(r, c))
+                reply.append('*');
+            else
+                reply.append(board.getNeighborMineCount(r, c));
+        }
+
+        // Give back the memory of the current board, if any.
+        void endGame() {
+            charge(-boardBytes);
+            boardBytes = 0;
+            board = null;
+        }
+
+        public void cellChanged(int row, int col) {
+            if (numChanged < MAX_LISTED) {
+                if (numChanged == changed.length)
+                    changed = Arrays.copyOf(changed, 2 * numChanged);
+                changed[numChanged] = CellQueue.pack(row, col);
+            }
+            numChanged++;
+        }
+
+        public void boardChanged() {
+        }
+
+        public void gameOver(boolean won) {
+        }
+    }
+
+    /**
+     * The main() program runs a server on the given port, or DEFAULT_PORT,
+     * until it is killed.
+     */
+    public static void main(String args[]) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        GameServer server = new GameServer(port);
+        System.out.println("Minesweeper server listening on port " + server.getPort());
+        server.serve();
+    }
+}
@@ -54,6 +54,7 @@ public class HelpBox extends Widget {
         canvas.setFont(Canvas.DEFAULT_FONT);
         canvas.textLeft(x + 15, y + 15, "Q - Quit");
         canvas.textLeft(x + 15, y + 37.5, "Left button - Reveal");
+        canvas.textLeft(x + 15, y + 60, "WASD - Scroll, +/- - Zoom");
     }
 
 }
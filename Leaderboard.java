@@ -12,6 +12,24 @@
 
 import GUI.*;
 import java.awt.Color;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * A LeaderBoard object keeps track of the top few names and scores for each
@@ -38,47 +56,152 @@ public class Leaderboard extends Window {
      */
     public static final int HEIGHT = 450;
 
-    // TODO: Add member variables here as needed, e.g. for the head of the
-    // linked list or for an array or several arrays. You can keep separate
-    // lists for each difficulty level, "easy", "medium", and "hard". Or you
-    // could just ignore difficulty levels and lump everyone in the same top
-    // scores list.
-    //
-    // Depending on how you want to keep track of the top names and scores, you
-    // might want to define a new class, e.g. PlayerScore, to hold information
-    // about each score, or to create a linked list. Create those classes in
-    // their own files, then add member variables here that use them.
+    /**
+     * The file scores are kept in, see ScoreLog. The first time the
+     * leaderboard is loaded without one, the scores in the old text file,
+     * leaderboard.dat, are copied into it.
+     */
+    public static final String LOG_FILE = "leaderboard.log";
+
+    /**
+     * The file holding a count of every score ever inserted, at each
+     * difficulty level, see ScoreHistogram. Each score is appended to the
+     * end of it as it is inserted, so none are lost in a crash, and load()
+     * and save() rewrite it with them added into the counts.
+     */
+    public static final String HISTORY_FILE = "leaderboard.hist";
+
+    /**
+     * The old text file of scores, one "difficulty score name" per line,
+     * copied into the log the first time the leaderboard is loaded.
+     */
+    public static final String DATA_FILE = "leaderboard.dat";
+
+    // The scores for each difficulty level, made when the first score for
+    // that level is inserted.
+    private final Map<String, ScoreTable> tables = new HashMap<>();
+
+    // Most scores kept for each difficulty level, MAX_NUM_SCORES or
+    // ScoreTable.UNBOUNDED.
+    private final int capacity;
+
+    // Where each new score is saved, or null if the log isn't open.
+    private ScoreLog log;
+
+    // Every score ever inserted at each difficulty level, whether or not it
+    // made the leaderboard.
+    private final Map<String, ScoreHistogram> histories = new HashMap<>();
+
+    // Open for appending each inserted score to historyFile, or null if it
+    // isn't open.
+    private FileChannel historyLog;
+
+    // Paths of the LOG_FILE, HISTORY_FILE, and DATA_FILE this leaderboard
+    // uses.
+    private final String logFile;
+    private final String historyFile;
+    private final String dataFile;
 
     /**
      * Initialize a new leaderboard. This does not load any data from the saved
      * file, so the caller should call load() next.
      */
     public Leaderboard() {
+        this(false);
+    }
+
+    /**
+     * Initialize a new leaderboard, which keeps only the top MAX_NUM_SCORES
+     * scores for each difficulty level, or if archive is true, keeps every
+     * score (e.g. for tournaments with millions of games). This does not
+     * load any data from the saved file, so the caller should call load()
+     * next.
+     */
+    public Leaderboard(boolean archive) {
+        this(archive, null);
+    }
+
+    /**
+     * Initialize a new leaderboard like Leaderboard(archive), which keeps its
+     * LOG_FILE, HISTORY_FILE, and DATA_FILE in the given directory instead of
+     * the working directory, e.g. for tests and benchmarks that must not
+     * touch the real scores.
+     * @param directory the directory, or null for the working directory.
+     */
+    public Leaderboard(boolean archive, String directory) {
         super("Minesweeper Leaderboard", WIDTH, HEIGHT);
-        // TODO: Add code here to initialize member variables as needed.
+        capacity = archive ? ScoreTable.UNBOUNDED : MAX_NUM_SCORES;
+        logFile = new File(directory, LOG_FILE).getPath();
+        historyFile = new File(directory, HISTORY_FILE).getPath();
+        dataFile = new File(directory, DATA_FILE).getPath();
     }
 
 
     /**
-     * Load top scores from leaderboard.dat
+     * Load top scores from leaderboard.log, or from leaderboard.dat if there
+     * is no log yet, or only an empty one. The scores from leaderboard.dat
+     * are safely in a new log before this returns. After this, every score
+     * inserted is saved in the log right away. Calling this again throws
+     * away what is in memory and loads everything again.
      */
     public void load() {
-        In input = new In("leaderboard.dat");
-        while (input.hasNextLine()) {
-            String line = input.readLine();
-            String[] parts = line.split(" ", 3);
-            String difficulty = parts[0];
-            int score = Integer.parseInt(parts[1]);
-            String name = parts[2];
-            insert(difficulty, name, score);
+        closeLog();
+        tables.clear();
+        boolean firstTime = !ScoreLog.exists(logFile) || new File(logFile).length() == 0;
+        if (firstTime && new File(dataFile).exists()) {
+            In input = new In(dataFile);
+            while (input.hasNextLine()) {
+                String line = input.readLine();
+                String[] parts = line.split(" ", 3);
+                String difficulty = parts[0];
+                int score = Integer.parseInt(parts[1]);
+                String name = parts[2];
+                // Sorting once at the end is much faster than inserting each
+                // score in order, for a big archive.
+                table(difficulty).add(name, score);
+            }
+        }
+        try {
+            if (firstTime) {
+                Snapshot s = snapshot();
+                ScoreLog.create(logFile, s.difficulties, s.names, s.scores);
+            }
+            log = new ScoreLog(logFile);
+            if (!firstTime)
+                log.replay((difficulty, name, score) -> table(difficulty).add(name, score));
+        } catch (IOException e) {
+            System.out.println("Can't open " + logFile + ": " + e.getMessage());
+            log = null;
         }
+        if (loadHistory())
+            saveHistory();
+        else
+            openHistoryLog();
     }
 
     /**
-     * Save top scores to leaderboard.dat
+     * Make sure every score is safely on the disk. The log is also compacted
+     * on a background thread, dropping any scores that are no longer on the
+     * leaderboard.
      */
     public void save() {
-        Out out = new Out("leaderboard.dat");
+        if (log == null)
+            return;
+        try {
+            log.sync();
+        } catch (IOException e) {
+            System.out.println("Can't save " + logFile + ": " + e.getMessage());
+        }
+        compactLog();
+        saveHistory();
+    }
+
+    /**
+     * Write the top scores to a text file, one per line, in the format of
+     * leaderboard.dat.
+     */
+    public void export(String filename) {
+        Out out = new Out(filename);
         String[] levels = { "easy", "medium", "hard" };
         for (String level : levels) {
             int n = getNumPlayerScores(level);
@@ -91,8 +214,92 @@ public class Leaderboard extends Window {
                     out.printf("%s %d %s\n", level, score, name);
                 }
             }
-            out.close();
         }
+        out.close();
+    }
+
+    /**
+     * Load the top scores for each difficulty level from a binary archive
+     * (see ScoreArchive). Only the scores that fit on this leaderboard are
+     * read, so this is quick even for a huge archive. The scores read are
+     * counted in the histories too.
+     */
+    public void load(ScoreArchive archive) {
+        for (String level : archive.getDifficulties()) {
+            int n = Math.min(capacity, archive.getNumScores(level));
+            ScoreTable t = table(level);
+            ScoreHistogram h = history(level);
+            for (int i = 0; i < n; i++) {
+                int score = archive.getScore(level, i);
+                t.add(archive.getName(level, i), score);
+                h.add(score);
+            }
+        }
+        if (historyLog != null)
+            saveHistory();
+    }
+
+    /**
+     * Write every score on the leaderboard to a binary archive file (see
+     * ScoreArchive).
+     * @throws IOException if the file can't be written.
+     */
+    public void exportArchive(String filename) throws IOException {
+        String[] levels = tables.keySet().toArray(new String[0]);
+        ScoreTable[] t = new ScoreTable[levels.length];
+        for (int k = 0; k < levels.length; k++)
+            t[k] = tables.get(levels[k]);
+        ScoreArchive.write(filename, levels, t);
+    }
+
+    // Start replacing the log with just the scores now on the leaderboard.
+    private void compactLog() {
+        Snapshot s = snapshot();
+        log.compact(s.difficulties, s.names, s.scores);
+    }
+
+    // Every score on the leaderboard, in parallel arrays as ScoreLog wants
+    // them.
+    private static final class Snapshot {
+        String[] difficulties;
+        String[] names;
+        int[] scores;
+    }
+
+    private Snapshot snapshot() {
+        int n = 0;
+        for (ScoreTable t : tables.values())
+            n += t.size();
+        Snapshot s = new Snapshot();
+        s.difficulties = new String[n];
+        s.names = new String[n];
+        s.scores = new int[n];
+        int k = 0;
+        for (Map.Entry<String, ScoreTable> e : tables.entrySet()) {
+            ScoreTable t = e.getValue();
+            for (int i = 0; i < t.size(); i++, k++) {
+                s.difficulties[k] = e.getKey();
+                s.names[k] = t.getName(i);
+                s.scores[k] = t.getScore(i);
+            }
+        }
+        return s;
+    }
+
+    /**
+     * Close the log, waiting for any compaction to finish. Scores inserted
+     * after this are kept in memory only, until load() is called again.
+     */
+    public void closeLog() {
+        closeHistoryLog();
+        if (log == null)
+            return;
+        try {
+            log.close();
+        } catch (IOException e) {
+            System.out.println("Can't close " + logFile + ": " + e.getMessage());
+        }
+        log = null;
     }
 
     /**
@@ -108,11 +315,20 @@ public class Leaderboard extends Window {
      * the list.
      */
     public int insert(String difficulty, String name, int score) {
-        // TODO: Add code here to insert the name and score into your linked
-        // list, array, or whatever. You can ignore the difficulty level. Or you
-        // can keep track of it in order to have different top score lists for
-        // each level. Or maybe penalize "easy" players?
-        return -1; // For now, just return -1 to indicate failure (delete me!)
+        if (score < 0 || name == null || name.length() == 0)
+            return -1;
+        history(difficulty).add(score);
+        if (historyLog != null)
+            appendHistory(difficulty, score);
+        int rank = table(difficulty).insert(name, score);
+        if (rank >= 0 && log != null) {
+            try {
+                log.append(difficulty, name, score);
+            } catch (IOException e) {
+                System.out.println("Can't save score to " + logFile + ": " + e.getMessage());
+            }
+        }
+        return rank;
     }
 
     /**
@@ -121,7 +337,8 @@ public class Leaderboard extends Window {
      * @return the number of scores known at that difficulty level
      */
     public int getNumPlayerScores(String difficulty) {
-        return 0; // TODO: Replace this code with something sensible.
+        ScoreTable t = tables.get(difficulty);
+        return t == null ? 0 : t.size();
     }
 
     /**
@@ -133,7 +350,8 @@ public class Leaderboard extends Window {
      * level, or -1 if no such position exists.
      */
     public int getPlayerScore(String difficulty, int i) {
-        return -1; // TODO: Replace this code with something sensible.
+        ScoreTable t = tables.get(difficulty);
+        return t == null ? -1 : t.getScore(i);
     }
 
     /**
@@ -145,7 +363,171 @@ public class Leaderboard extends Window {
      * level, or null if no such position exists.
      */
     public String getPlayerName(String difficulty, int i) {
-        return null; // TODO: Replace this code with something sensible.
+        ScoreTable t = tables.get(difficulty);
+        return t == null ? null : t.getName(i);
+    }
+
+    /**
+     * Get the number of scores ever inserted at a difficulty level, including
+     * those that didn't make the leaderboard.
+     */
+    public long getNumScoresRecorded(String difficulty) {
+        ScoreHistogram h = histories.get(difficulty);
+        return h == null ? 0 : h.size();
+    }
+
+    /**
+     * Get the rank of a score among every score ever inserted at a difficulty
+     * level, where 1 is the best. Equal scores share a rank.
+     */
+    public long getRank(String difficulty, int score) {
+        ScoreHistogram h = histories.get(difficulty);
+        return h == null ? 1 : h.rankOf(score);
+    }
+
+    /**
+     * Get the percentage of every score ever inserted at a difficulty level
+     * that the given score beats, e.g. to tell a player "you beat 87% of hard
+     * players".
+     */
+    public double getPercentBeaten(String difficulty, int score) {
+        ScoreHistogram h = histories.get(difficulty);
+        return h == null ? 100 : h.percentBeaten(score);
+    }
+
+    // Get the history for a difficulty level, making an empty one if there
+    // is none yet.
+    private ScoreHistogram history(String difficulty) {
+        ScoreHistogram h = histories.get(difficulty);
+        if (h == null) {
+            h = new ScoreHistogram();
+            histories.put(difficulty, h);
+        }
+        return h;
+    }
+
+    // Load the histories from historyFile, and add in the scores appended to
+    // it since they were written. If there is none yet, start them with the
+    // scores on the leaderboard. Returns true if the file needs writing
+    // again, because it doesn't hold just the counts.
+    private boolean loadHistory() {
+        histories.clear();
+        if (!new File(historyFile).exists()) {
+            for (Map.Entry<String, ScoreTable> e : tables.entrySet()) {
+                ScoreTable t = e.getValue();
+                for (int i = 0; i < t.size(); i++)
+                    history(e.getKey()).add(t.getScore(i));
+            }
+            return true;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                 Files.newInputStream(Paths.get(historyFile))))) {
+            int n = in.readInt();
+            for (int k = 0; k < n; k++)
+                history(in.readUTF()).read(in);
+            boolean appended = false;
+            while (true) {
+                in.mark(1);
+                if (in.read() < 0)
+                    return appended;
+                in.reset();
+                appended = true;
+                String difficulty;
+                int score;
+                try {
+                    difficulty = in.readUTF();
+                    score = in.readInt();
+                } catch (EOFException e) {
+                    return true; // a crash cut the last score short
+                }
+                if (score < 0)
+                    throw new IOException("bad score " + score);
+                history(difficulty).add(score);
+            }
+        } catch (IOException e) {
+            System.out.println("Can't load " + historyFile + ": " + e.getMessage());
+            return true;
+        }
+    }
+
+    // Write the histories to historyFile, through a temporary file that is
+    // forced to the disk and renamed over it, so a crash leaves either the
+    // old file, with the scores appended to it, or the new one. Then open it
+    // for appending the scores inserted from now on.
+    private void saveHistory() {
+        closeHistoryLog();
+        Path temp = Paths.get(historyFile + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                                                        StandardOpenOption.WRITE,
+                                                        StandardOpenOption.TRUNCATE_EXISTING)) {
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    Channels.newOutputStream(channel)));
+                out.writeInt(histories.size());
+                for (Map.Entry<String, ScoreHistogram> e : histories.entrySet()) {
+                    out.writeUTF(e.getKey());
+                    e.getValue().write(out);
+                }
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(temp, Paths.get(historyFile), StandardCopyOption.ATOMIC_MOVE,
+                       StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.out.println("Can't save " + historyFile + ": " + e.getMessage());
+            return;
+        }
+        openHistoryLog();
+    }
+
+    // Start appending each inserted score to historyFile.
+    private void openHistoryLog() {
+        closeHistoryLog();
+        try {
+            historyLog = FileChannel.open(Paths.get(historyFile), StandardOpenOption.WRITE,
+                                          StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.out.println("Can't open " + historyFile + ": " + e.getMessage());
+        }
+    }
+
+    // Append one inserted score to historyFile, in one write, so it is
+    // counted when the histories are next loaded, even after a crash.
+    private void appendHistory(String difficulty, int score) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeUTF(difficulty);
+            out.writeInt(score);
+            ByteBuffer buf = ByteBuffer.wrap(bytes.toByteArray());
+            while (buf.hasRemaining())
+                historyLog.write(buf);
+        } catch (IOException e) {
+            System.out.println("Can't save score to " + historyFile + ": " + e.getMessage());
+        }
+    }
+
+    // Stop appending to historyFile.
+    private void closeHistoryLog() {
+        if (historyLog == null)
+            return;
+        try {
+            historyLog.close();
+        } catch (IOException e) {
+            System.out.println("Can't close " + historyFile + ": " + e.getMessage());
+        }
+        historyLog = null;
+    }
+
+    // Get the scores for a difficulty level, making an empty table if there
+    // are none yet.
+    private ScoreTable table(String difficulty) {
+        ScoreTable t = tables.get(difficulty);
+        if (t == null) {
+            t = new ScoreTable(capacity);
+            tables.put(difficulty, t);
+        }
+        return t;
     }
 
     // Print all of the top scores to the console, with a nice header.
@@ -195,6 +577,8 @@ public class Leaderboard extends Window {
         b.insert("medium", "test", 550);
         b.save();
         b.print();
+        StdOut.printf("A score of 550 beats %.0f%% of medium players.\n",
+                      b.getPercentBeaten("medium", 550));
         b.showAndWait();
     }
 }
@@ -0,0 +1,274 @@
+/*----------------------------------------------------------------
+ *  Author:   Kayleigh Crosby
+ *  Email:    kacros23@g.holycross.edu
+ *  Written:  10/17/2026
+ *
+ *  MineOracle answers where the mines are for a seed, one cell
+ *  at a time, without making the board.
+ *
+ *  Example: java MineOracle 1234 10000 10000 16000000 # check a big one
+ *
+ *----------------------------------------------------------------*/
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * A <i>MineOracle</i> says whether any cell of a board holds a mine, and how
+ * many mines neighbor it, in constant time, without making the board. It
+ * holds nothing but the seed and the size, and never changes, so any number
+ * of threads can ask it at once.
+ *
+ * Board.deployMines() has to draw its mines one after another from a random
+ * generator, so finding out about one cell means drawing them all. Instead,
+ * the oracle numbers the cells row by row and shuffles the numbers with a
+ * keyed permutation of [0, numCells): cell i holds a mine if i is sent to a
+ * number below numMines. That gives exactly numMines mines, spread as if at
+ * random. The permutation is a 4-round Feistel network over the smallest
+ * power of four at least numCells, with each round a hash of the seed, the
+ * round, and half of the bits. Numbers it sends past the last cell are sent
+ * through again (cycle walking). The power of four is less than 4 times
+ * numCells, so this takes fewer than 4 passes on average. The network can be
+ * run backwards just as fast, so the oracle can also say where the k-th mine
+ * is, and newBoard() makes the board in time proportional to the mines.
+ *
+ * The layouts are not the ones Board.deployMines() makes from the same seed,
+ * so games are only deployed from an oracle when asked to (Minesweeper -q,
+ * or NEW ... ORACLE on the GameServer), and their replays and saves say so.
+ * Games, replays, and saves made the old way are unchanged.
+ *
+ * For boards with no edges, cellHash() is the hash EndlessBoard uses to decide
+ * each cell on its own.
+ */
+public class MineOracle {
+
+    // Rounds of the Feistel network.
+    private static final int ROUNDS = 4;
+
+    // The golden ratio, as a 64-bit fraction, for spreading counters apart
+    // before hashing them, as in SplittableRandom.
+    private static final long GOLDEN = 0x9e3779b97f4a7c15L;
+
+    private final long seed;
+    private final int numRows;
+    private final int numCols;
+    private final long numCells;
+    private final int numMines;
+
+    // Bits in each half of a number in the Feistel network, a mask for one
+    // half, and the key of each round.
+    private final int halfBits;
+    private final long halfMask;
+    private final long[] keys = new long[ROUNDS];
+
+    /**
+     * Initialize an oracle for a board of the given size with the given number
+     * of mines, placed by the seed.
+     */
+    public MineOracle(long seed, int numRows, int numCols, int numMines) {
+        if (numRows <= 0 || numCols <= 0)
+            throw new IllegalArgumentException("board must be at least 1x1");
+        this.numCells = (long)numRows * numCols;
+        if (numMines < 0 || numMines > numCells)
+            throw new IllegalArgumentException("can't place " + numMines + " mines on " + numCells + " cells");
+        this.seed = seed;
+        this.numRows = numRows;
+        this.numCols = numCols;
+        this.numMines = numMines;
+        int bits = 64 - Long.numberOfLeadingZeros(numCells - 1);
+        this.halfBits = Math.max(1, (bits + 1) / 2);
+        this.halfMask = (1L << halfBits) - 1;
+        for (int i = 0; i < ROUNDS; i++)
+            keys[i] = mix(seed + (i + 1) * GOLDEN);
+    }
+
+    /**
+     * Get the seed the mines are placed by.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Get the number of rows on the board.
+     */
+    public int getNumRows() {
+        return numRows;
+    }
+
+    /**
+     * Get the number of columns on the board.
+     */
+    public int getNumCols() {
+        return numCols;
+    }
+
+    /**
+     * Get the number of mines on the board.
+     */
+    public int getNumMines() {
+        return numMines;
+    }
+
+    /**
+     * Returns true if the given cell is on the board.
+     */
+    public boolean inBounds(int row, int col) {
+        return row >= 0 && row < numRows && col >= 0 && col < numCols;
+    }
+
+    /**
+     * Returns true if the given cell holds a mine.
+     * @throws IndexOutOfBoundsException if the cell is off the board.
+     */
+    public boolean isMine(int row, int col) {
+        if (!inBounds(row, col))
+            throw new IndexOutOfBoundsException("cell is off the board: " + row + ", " + col);
+        return permute((long)row * numCols + col) < numMines;
+    }
+
+    /**
+     * Get the number of mines neighboring the given cell.
+     * @throws IndexOutOfBoundsException if the cell is off the board.
+     */
+    public int getNeighborMineCount(int row, int col) {
+        if (!inBounds(row, col))
+            throw new IndexOutOfBoundsException("cell is off the board: " + row + ", " + col);
+        int n = 0;
+        for (int r = Math.max(row - 1, 0); r <= Math.min(row + 1, numRows - 1); r++)
+            for (int c = Math.max(col - 1, 0); c <= Math.min(col + 1, numCols - 1); c++)
+                if ((r != row || c != col) && permute((long)r * numCols + c) < numMines)
+                    n++;
+        return n;
+    }
+
+    /**
+     * Get the cell of the k-th mine, packed with CellQueue.pack(). The mines
+     * are numbered from 0 to numMines - 1, in no particular order.
+     */
+    public long getMine(int k) {
+        if (k < 0 || k >= numMines)
+            throw new IndexOutOfBoundsException("no mine " + k + " of " + numMines);
+        long i = unpermute(k);
+        return CellQueue.pack((int)(i / numCols), (int)(i % numCols));
+    }
+
+    /**
+     * Make a board with the mines where this oracle says they are, in time
+     * proportional to the number of mines.
+     */
+    public Board newBoard() {
+        Board board = new Board(numRows, numCols);
+        board.deployMines(this);
+        return board;
+    }
+
+    /**
+     * Hash a cell of a board with no edges with a seed, to 64 bits that look
+     * random, and depend on nothing else.
+     */
+    public static long cellHash(long seed, int row, int col) {
+        return cellHashMixed(mixSeed(seed), row, col);
+    }
+
+    /**
+     * Mix a seed for cellHashMixed(), so that hashing many cells with one
+     * seed doesn't mix it again for each cell.
+     */
+    static long mixSeed(long seed) {
+        return mix(seed);
+    }
+
+    /**
+     * Same as cellHash(seed, row, col), given mixSeed(seed) instead of seed.
+     */
+    static long cellHashMixed(long mixedSeed, int row, int col) {
+        return mix(mixedSeed + CellQueue.pack(row, col) * GOLDEN);
+    }
+
+    // Send a cell number to its place in the permutation.
+    private long permute(long x) {
+        do {
+            long left = x >>> halfBits, right = x & halfMask;
+            for (int i = 0; i < ROUNDS; i++) {
+                long t = right;
+                right = left ^ (mix(keys[i] + right) & halfMask);
+                left = t;
+            }
+            x = (left << halfBits) | right;
+        } while (x >= numCells);
+        return x;
+    }
+
+    // Undo permute().
+    private long unpermute(long y) {
+        do {
+            long left = y >>> halfBits, right = y & halfMask;
+            for (int i = ROUNDS - 1; i >= 0; i--) {
+                long t = left;
+                left = right ^ (mix(keys[i] + left) & halfMask);
+                right = t;
+            }
+            y = (left << halfBits) | right;
+        } while (y >= numCells);
+        return y;
+    }
+
+    // The SplitMix64 finalizer, as in SplittableRandom.
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * The main() program checks an oracle against the board it makes, and
+     * times its answers on every core at once. It takes an optional seed
+     * (default 1), number of rows and columns (default 1000x1000), and number
+     * of mines (default 16% of the cells).
+     */
+    public static void main(String args[]) {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 1;
+        int rows = args.length > 2 ? Integer.parseInt(args[1]) : 1000;
+        int cols = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        int mines = args.length > 3 ? Integer.parseInt(args[3]) : (int)((long)rows * cols * 16 / 100);
+        MineOracle oracle = new MineOracle(seed, rows, cols, mines);
+
+        // Check the oracle against a board, made from the mines' cells, on a
+        // sample of rows.
+        long start = System.nanoTime();
+        Board board = oracle.newBoard();
+        long makeNanos = System.nanoTime() - start;
+        int step = Math.max(1, rows / 1000);
+        long wrong = IntStream.range(0, rows).filter(r -> r % step == 0).parallel().mapToLong(r -> {
+            long n = 0;
+            for (int c = 0; c < cols; c++)
+                if (oracle.isMine(r, c) != board.isMine(r, c)
+                    || oracle.getNeighborMineCount(r, c) != board.getNeighborMineCount(r, c))
+                    n++;
+            return n;
+        }).sum();
+
+        // Time random questions on every core.
+        int threads = Runtime.getRuntime().availableProcessors();
+        int perThread = 4_000_000;
+        AtomicLong found = new AtomicLong();
+        start = System.nanoTime();
+        IntStream.range(0, threads).parallel().forEach(t -> {
+            long z = seed + t, n = 0;
+            for (int k = 0; k < perThread; k++) {
+                z = mix(z + GOLDEN);
+                if (oracle.isMine((int)((z >>> 32) % rows), (int)((z & 0xffffffffL) % cols)))
+                    n++;
+            }
+            found.addAndGet(n);
+        });
+        long askNanos = System.nanoTime() - start;
+
+        System.out.printf("%dx%d with %d mines: board made in %.1f ms, %d sampled cells wrong%n",
+                          rows, cols, board.getNumMines(), makeNanos / 1e6, wrong);
+        System.out.printf("%d questions on %d threads: %.1f ns each, %.2f%% mines%n",
+                          (long)threads * perThread, threads, askNanos / (double)threads / perThread,
+                          100.0 * found.get() / threads / perThread);
+    }
+}
@@ -0,0 +1,87 @@
+/*----------------------------------------------------------------
+ *  Author:   Kayleigh Crosby
+ *  Email:    kacros23@g.holycross.edu
+ *  Written:  10/17/2026
+ *
+ *  MineProbabilities holds the chance of a mine in each hidden cell
+ *  of a board, as computed by ProbabilityEngine.
+ *----------------------------------------------------------------*/
+
+import java.util.Arrays;
+
+/**
+ * A <i>MineProbabilities</i> object is the result of a ProbabilityEngine run:
+ * the exact probability that each hidden cell holds a mine, given everything
+ * visible on the board and the total number of mines. Cells next to a
+ * revealed number (the frontier) each have their own probability. Every other
+ * hidden cell (the interior) has the same probability.
+ */
+public class MineProbabilities {
+
+    private final int numCols;
+
+    // Frontier cells, as sorted cell indexes, and their probabilities.
+    private final long[] frontier;
+    private final double[] frontierProbability;
+
+    // Probability of a mine in any one interior cell, and one interior cell
+    // (packed as in CellQueue.pack()), or -1 if there are none.
+    private final double interiorProbability;
+    private final long interiorCell;
+
+    /**
+     * Initialize a result. The frontier cells must be sorted, with
+     * probabilities in the same order.
+     */
+    MineProbabilities(int numCols, long[] frontier, double[] frontierProbability,
+                      double interiorProbability, long interiorCell) {
+        this.numCols = numCols;
+        this.frontier = frontier;
+        this.frontierProbability = frontierProbability;
+        this.interiorProbability = interiorProbability;
+        this.interiorCell = interiorCell;
+    }
+
+    /**
+     * Get the probability that a mine is in the given hidden cell. The
+     * result is meaningless for cells that were already revealed.
+     */
+    public double getProbability(int row, int col) {
+        int k = Arrays.binarySearch(frontier, (long)row * numCols + col);
+        return k >= 0 ? frontierProbability[k] : interiorProbability;
+    }
+
+    /**
+     * Get the probability of a mine in each cell that is not next to a
+     * revealed number.
+     */
+    public double getInteriorProbability() {
+        return interiorProbability;
+    }
+
+    /**
+     * Get the number of hidden cells next to a revealed number.
+     */
+    public int getFrontierSize() {
+        return frontier.length;
+    }
+
+    /**
+     * Get the hidden cell least likely to hold a mine, packed as in
+     * CellQueue.pack(), or -1 if there are no hidden cells. Ties go to the
+     * frontier, since revealing it tells more.
+     */
+    public long getSafestCell() {
+        long best = -1;
+        double bestP = 2;
+        for (int k = 0; k < frontier.length; k++) {
+            if (frontierProbability[k] < bestP) {
+                bestP = frontierProbability[k];
+                best = CellQueue.pack((int)(frontier[k] / numCols), (int)(frontier[k] % numCols));
+            }
+        }
+        if (interiorCell != -1 && interiorProbability < bestP)
+            best = interiorCell;
+        return best;
+    }
+}
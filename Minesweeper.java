@@ -12,18 +12,53 @@
  *
  *  Example: java Minesweeper 1234 # This repeats the game with seed 1234
  *
+ *  Example: java Minesweeper 1234 40 60 # Same, on a 40x60 board
+ *
+ *  Example: java Minesweeper 1234 40 60 300 # 40x60 board with 300 mines
+ *
+ *  Example: java Minesweeper -n # A board that never needs a guess
+ *
+ *  Example: java Minesweeper -o # The first click always opens a region
+ *
+ *  Example: java Minesweeper -q # Mines placed by a MineOracle
+ *
  *----------------------------------------------------------------*/
 
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
 public class Minesweeper {
 
+    // Options that may appear anywhere in the arguments.
+    private static final List<String> FLAGS = List.of("-n", "-o", "-q", "-u");
+
 
     /**
      * The main() program for the minesweeper game. It takes one optional
      * parameter, an integer seed used for randomizing the mines. If you use the
      * same seed twice, you should get the exact same deployment of mines.
+     * After the seed, the number of rows and columns can be given, and after
+     * those the number of mines. Without a mine count, the number of mines for
+     * the chosen difficulty is scaled up or down to the size of the board.
+     * With -n anywhere, the board is one that can be cleared without ever
+     * guessing, and starts with its first cell open. The first click never
+     * hits a mine. With -o, the cells around it don't hold mines either, and
+     * with -u, it can hit one. With -q, the mines are placed by a
+     * MineOracle for the seed, so any cell of the game can be asked about
+     * without the board (no-guess boards are always placed the old way).
      */
     public static void main(String args[]) {
 
+        // Take out the options, so the rest are where we expect.
+        List<String> options = Arrays.asList(args);
+        boolean noGuess = options.contains("-n");
+        boolean oracle = options.contains("-q");
+        int firstClickSafe = options.contains("-u") ? Board.SAFE_NONE
+            : options.contains("-o") ? Board.SAFE_AREA : Board.SAFE_CELL;
+        args = Arrays.stream(args).filter(a -> !FLAGS.contains(a)).toArray(String[]::new);
+
         // Print a customized welcome message.
         String username = System.getenv("USER");
         StdOut.println("--=== Welcome to Minesweeper, " + username + "! ===--");
@@ -43,6 +78,31 @@ public class Minesweeper {
             System.out.println("You are re-playing the game with seed: " + seed);
         }
 
+        // Board size and mine count, if given.
+        int rows = Game.NUM_ROWS;
+        int cols = Game.NUM_COLS;
+        int mines = -1;
+        if (args.length >= 3) {
+            rows = Integer.parseInt(args[1]);
+            cols = Integer.parseInt(args[2]);
+        }
+        if (args.length >= 4)
+            mines = Integer.parseInt(args[3]);
+
+        // No-guess boards for a random game are generated in the background
+        // while the title screen is up, so the game can start right away.
+        BoardPool pool = null;
+        if (noGuess && args.length == 0) {
+            pool = new BoardPool(2, 0, seed, 1);
+            if (mines >= 0) {
+                if (mines <= (long)rows * cols - 9)
+                    pool.prefill(rows, cols, mines);
+            } else {
+                for (String level : new String[] { "easy", "medium", "hard" })
+                    pool.prefill(level, rows, cols);
+            }
+        }
+
         // Create the "splash" title screen, and wait for the user to make a
         // selection.
         TitleScreen t = new TitleScreen();
@@ -55,25 +115,111 @@ public class Minesweeper {
             return;
         }
 
+        // Pick up a saved game where it was left off.
+        if (selection.equals("restore")) {
+            SaveGame save;
+            try {
+                save = SaveGame.restore(SaveGame.DEFAULT_FILE);
+            } catch (IOException e) {
+                System.out.println("Can't restore the saved game: " + e.getMessage());
+                return;
+            }
+            System.out.println("Restored the " + save.getDifficulty() + " game with seed "
+                               + save.getSeed());
+            Game game = new Game(username, save.getDifficulty(), save.getBoard());
+            game.setSaveGame(save);
+            game.play();
+            return;
+        }
+
         StdRandom.setSeed(seed);
 
-        // Create a game, and deploy the correct number of mines.
-        Game game = new Game(username, selection);
+        if (mines < 0)
+            mines = minesFor(selection, rows, cols);
+        if (mines < 0)
+            mines = minesFor(StdRandom.uniform(5, 100), rows, cols);
 
-        StdRandom.setSeed(seed);
+        // Create a game, and deploy the correct number of mines. A no-guess
+        // game's mines come from a seed of its own, which is what a replay or
+        // save of it needs.
+        Game game;
+        long gameSeed = seed;
+        NoGuessGenerator.Layout layout = null;
+        if (noGuess) {
+            if (mines > (long)rows * cols - 9)
+                layout = null; // no room for a start with no mines around it
+            else if (pool != null)
+                layout = pool.take(rows, cols, mines);
+            else
+                layout = new NoGuessGenerator(rows, cols, mines).generate(new SplittableRandom(seed));
+            if (pool != null)
+                pool.close();
+            if (layout == null)
+                System.out.println("Can't find a board that never needs a guess, so this one may need some");
+        }
+        if (layout != null) {
+            oracle = false;
+            gameSeed = layout.getSeed();
+            game = new Game(username, selection, layout.newBoard());
+            System.out.println("This board never needs a guess, its mines come from seed " + gameSeed);
+        } else {
+            game = new Game(username, selection, rows, cols);
+            if (oracle)
+                game.deployMines(new MineOracle(seed, rows, cols, mines));
+            else
+                game.deployMines(mines, new SplittableRandom(seed));
+        }
+
+        // Mines under the first click are moved away, in a way that only
+        // depends on the seed and the cell, so replays can do the same.
+        game.getBoard().setFirstClickSafe(firstClickSafe, gameSeed);
+
+        // Record the game, so it can be played back with: java Replay file
+        String replayFile = "minesweeper-" + gameSeed + ".replay";
+        GameRecorder recorder = new GameRecorder(gameSeed, selection, rows, cols, mines, firstClickSafe,
+                                                  oracle);
+        game.setRecorder(recorder, replayFile);
+        System.out.println("This game will be recorded to " + replayFile);
+
+        // Save the game after every move, so it can be restored later.
+        game.setSaveGame(SaveGame.watch(SaveGame.DEFAULT_FILE, game.getBoard(), gameSeed,
+                                        selection, oracle));
 
-        if (selection.equals("hard"))
-            game.deployMines(100);
-        else if (selection.equals("medium"))
-            game.deployMines(20);
-        else if (selection.equals("easy"))
-            game.deployMines(5);
+        // A no-guess game's first cell is opened for the player, so the game
+        // and its timer start now.
+        if (layout != null) {
+            recorder.record(layout.getStartRow(), layout.getStartCol(), Board.LEFT);
+            game.startTimer();
+        }
+
+        // Wait for the user to play the game. The window is redrawn after each
+        // click or key, and once a second for the timer.
+        game.play();
+    }
+
+    /**
+     * Get the number of mines for a difficulty ("easy", "medium", or "hard")
+     * on a board of the given size, or -1 for any other difficulty. The
+     * counts are 5, 20, and 100 on the default 20x30 board, and are scaled up
+     * or down to keep the same density of mines on bigger or smaller boards.
+     */
+    public static int minesFor(String difficulty, int rows, int cols) {
+        if (difficulty.equals("hard"))
+            return minesFor(100, rows, cols);
+        else if (difficulty.equals("medium"))
+            return minesFor(20, rows, cols);
+        else if (difficulty.equals("easy"))
+            return minesFor(5, rows, cols);
         else
-            game.deployMines(StdRandom.uniform(5, 100));
+            return -1;
+    }
 
-        // Wait for the user to play the game. We turn on animation so the timer
-        // display is updated properly.
-        game.showAndAnimate(10);
+    // Scale a number of mines on the default board to a board of the given
+    // size.
+    private static int minesFor(int defaultMines, int rows, int cols) {
+        long cells = (long)rows * cols;
+        long defaultCells = Game.NUM_ROWS * Game.NUM_COLS;
+        return (int)Math.max(1, Math.min(cells, defaultMines * cells / defaultCells));
     }
 
 }
@@ -0,0 +1,269 @@
+/*----------------------------------------------------------------
+ *  Author:   Kayleigh Crosby
+ *  Email:    kacros23@g.holycross.edu
+ *  Written:  10/17/2026
+ *
+ *  NoGuessGenerator makes boards that can be cleared from the
+ *  first click by deduction alone, without ever guessing.
+ *
+ *  Example: java NoGuessGenerator hard 1000 # time 1000 hard boards
+ *
+ *----------------------------------------------------------------*/
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * A <i>NoGuessGenerator</i> makes boards of one size and mine count that
+ * never force a guess. It deploys mines at random, picks a starting cell with
+ * no neighboring mines, and then plays the board with a Solver, revealing only
+ * cells the Solver proves safe. If that clears the board, the board is kept,
+ * and otherwise it is thrown away and another is tried.
+ *
+ * A kept board is described by a Layout: the seed its mines were deployed
+ * from (with a SplittableRandom, as Minesweeper does, so replays and saves of
+ * it work like any other game) and the starting cell, which is revealed for
+ * the player. A Layout is tiny, and rebuilding its board is no slower than
+ * deploying random mines, so boards can be generated ahead of time and kept
+ * in a BoardPool.
+ */
+public class NoGuessGenerator {
+
+    /**
+     * Most cells tried as the start of one board before it is thrown away.
+     */
+    public static final int MAX_START_TRIES = 64;
+
+    /**
+     * Most random boards generate() tries before giving up. Hard boards of
+     * the default size are kept about a third of the time, but the chance
+     * falls fast as the mines get denser.
+     */
+    public static final int MAX_TRIES = 5000;
+
+    /**
+     * A board known to need no guesses: where its mines come from, and where
+     * to start.
+     */
+    public static final class Layout {
+
+        private final int numRows, numCols, numMines;
+        private final long seed;
+        private final int startRow, startCol;
+
+        private Layout(int numRows, int numCols, int numMines, long seed, int startRow, int startCol) {
+            this.numRows = numRows;
+            this.numCols = numCols;
+            this.numMines = numMines;
+            this.seed = seed;
+            this.startRow = startRow;
+            this.startCol = startCol;
+        }
+
+        /**
+         * Get the seed the mines are deployed from.
+         */
+        public long getSeed() {
+            return seed;
+        }
+
+        /**
+         * Get the number of rows on the board.
+         */
+        public int getNumRows() {
+            return numRows;
+        }
+
+        /**
+         * Get the number of columns on the board.
+         */
+        public int getNumCols() {
+            return numCols;
+        }
+
+        /**
+         * Get the number of mines on the board.
+         */
+        public int getNumMines() {
+            return numMines;
+        }
+
+        /**
+         * Get the row of the starting cell.
+         */
+        public int getStartRow() {
+            return startRow;
+        }
+
+        /**
+         * Get the column of the starting cell.
+         */
+        public int getStartCol() {
+            return startCol;
+        }
+
+        /**
+         * Make the board, with its mines deployed and the starting cell (and
+         * the empty region around it) revealed.
+         */
+        public Board newBoard() {
+            Board board = new Board(numRows, numCols);
+            board.deployMines(numMines, new SplittableRandom(seed));
+            board.click(startRow, startCol, Board.LEFT);
+            return board;
+        }
+    }
+
+    private final int numRows, numCols, numMines;
+
+    // Boards tried and kept, for measuring how hard the size is.
+    private long numTried = 0;
+    private long numKept = 0;
+
+    /**
+     * Initialize a generator for boards of the given size and mine count.
+     * There must be room for a starting cell with no mines around it.
+     * @throws IllegalArgumentException if there are too many mines.
+     */
+    public NoGuessGenerator(int numRows, int numCols, int numMines) {
+        if (numMines < 0 || numMines > (long)numRows * numCols - 9)
+            throw new IllegalArgumentException("can't make a no-guess board with " + numMines + " mines");
+        this.numRows = numRows;
+        this.numCols = numCols;
+        this.numMines = numMines;
+    }
+
+    /**
+     * Get the number of boards tried so far.
+     */
+    public synchronized long getNumTried() {
+        return numTried;
+    }
+
+    /**
+     * Get the number of boards kept so far.
+     */
+    public synchronized long getNumKept() {
+        return numKept;
+    }
+
+    /**
+     * Make a board that needs no guesses, trying up to MAX_TRIES random
+     * boards. The same rng state always gives the same layout. This can be
+     * called from several threads at once, with different rngs.
+     * @return the layout, or null if none of the boards tried needs no
+     * guesses, or the thread was interrupted.
+     */
+    public Layout generate(RandomGenerator rng) {
+        Layout layout = null;
+        int tried = 0;
+        while (layout == null && tried < MAX_TRIES && !Thread.currentThread().isInterrupted()) {
+            tried++;
+            layout = tryBoard(rng.nextLong());
+        }
+        synchronized (this) {
+            numTried += tried;
+            if (layout != null)
+                numKept++;
+        }
+        return layout;
+    }
+
+    // Try the board with mines deployed from the given seed, and return its
+    // layout if it needs no guesses, or null if it does.
+    private Layout tryBoard(long seed) {
+        Board board = new Board(numRows, numCols);
+        SplittableRandom rng = new SplittableRandom(seed);
+        board.deployMines(numMines, rng);
+
+        // Start on a cell with no mines around it, so the first click opens
+        // a region instead of showing a single number.
+        int row = -1, col = -1;
+        for (int k = 0; k < MAX_START_TRIES && row < 0; k++) {
+            int r = rng.nextInt(numRows), c = rng.nextInt(numCols);
+            if (!board.isMine(r, c) && board.getNeighborMineCount(r, c) == 0) {
+                row = r;
+                col = c;
+            }
+        }
+        if (row < 0)
+            return null;
+
+        board.click(row, col, Board.LEFT);
+        return isSolvable(board, numMines) ? new Layout(numRows, numCols, numMines, seed, row, col) : null;
+    }
+
+    /**
+     * Returns true if the board can be played to a win from its current state
+     * by revealing only cells a Solver proves safe, plus the deduction from
+     * the total number of mines: once every mine is found, the other hidden
+     * cells are safe, and once the hidden cells not known to be safe are as
+     * many as the mines left, they are all mines. The board is played, so
+     * pass one that can be thrown away.
+     */
+    public static boolean isSolvable(Board board, int numMines) {
+        Solver solver = Solver.watch(board);
+        while (!board.isGameOver()) {
+            solver.solve();
+            long cell = solver.pollSafe();
+            if (cell != -1) {
+                board.click(CellQueue.rowOf(cell), CellQueue.colOf(cell), Board.LEFT);
+                continue;
+            }
+            long minesLeft = numMines - solver.getNumKnownMines();
+            long unknown = board.getNumCellsRemaining() - solver.getNumKnownMines();
+            if (minesLeft == unknown)
+                return true; // every cell left is a mine
+            if (minesLeft != 0)
+                return false; // stuck, a guess is needed
+            // Every mine is known, reveal the rest.
+            for (int r = 0; r < board.getNumRows(); r++)
+                for (int c = 0; c < board.getNumCols(); c++)
+                    if (!board.isRevealed(r, c) && !solver.isKnownMine(r, c))
+                        board.click(r, c, Board.LEFT);
+        }
+        return board.isWon();
+    }
+
+    /**
+     * The main() program makes no-guess boards for a difficulty level on the
+     * default board size, and prints how long each one took.
+     */
+    public static void main(String args[]) {
+        String difficulty = args.length > 0 ? args[0] : "hard";
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int mines = Minesweeper.minesFor(difficulty, Game.NUM_ROWS, Game.NUM_COLS);
+        if (mines < 0) {
+            System.out.println("Usage: java NoGuessGenerator easy|medium|hard [count]");
+            return;
+        }
+        NoGuessGenerator generator = new NoGuessGenerator(Game.NUM_ROWS, Game.NUM_COLS, mines);
+        SplittableRandom rng = new SplittableRandom(1);
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            if (generator.generate(rng) == null) {
+                System.out.println("No board needing no guesses in " + MAX_TRIES + " tries");
+                return;
+            }
+        }
+        double secs = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d %s boards in %.3f s (%.3f ms each), %.1f%% of boards tried were kept%n",
+                          count, difficulty, secs, 1000 * secs / count,
+                          100.0 * generator.getNumKept() / generator.getNumTried());
+
+        long t = System.nanoTime();
+        Board board = null;
+        for (int i = 0; i < count; i++) {
+            board = new Board(Game.NUM_ROWS, Game.NUM_COLS);
+            board.deployMines(mines, new SplittableRandom(i));
+        }
+        double random = (System.nanoTime() - t) / 1e3 / count;
+        Layout layout = generator.generate(rng);
+        t = System.nanoTime();
+        for (int i = 0; i < count; i++)
+            board = layout.newBoard();
+        double fromLayout = (System.nanoTime() - t) / 1e3 / count;
+        System.out.printf("Starting a game: %.1f us random, %.1f us from a layout (%d cells open)%n",
+                          random, fromLayout, board.getNumRevealed());
+    }
+}
@@ -0,0 +1,478 @@
+/*----------------------------------------------------------------
+ *  Author:   Kayleigh Crosby
+ *  Email:    kacros23@g.holycross.edu
+ *  Written:  10/17/2026
+ *
+ *  ProbabilityEngine computes the exact probability of a mine in
+ *  every hidden cell of a board.
+ *----------------------------------------------------------------*/
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A <i>ProbabilityEngine</i> computes, for each hidden cell of a board, the
+ * exact probability that it holds a mine, from the visible numbers and the
+ * total number of mines (e.g. Game.getNumMinesDeployed()).
+ *
+ * The hidden cells next to revealed numbers (the frontier) are split into
+ * independent components, where two cells are in the same component if some
+ * chain of numbers links them. The solutions of each component are
+ * enumerated by backtracking, pruning as soon as a number can no longer be
+ * satisfied, and counted by how many mines they use. A component's counts
+ * only depend on its shape, so they are memoized and reused on later moves.
+ * The components are then combined, and every way of using k mines on the
+ * frontier is weighted by the binomial C(interior cells, remaining mines - k)
+ * for the ways to place the rest in the unconstrained interior.
+ *
+ * The board is only read while the visible state is captured, so with
+ * computeAsync() the rest of the work can run on another thread. Each run has
+ * a time budget, and can be cancelled by interrupting its thread. An engine
+ * can also be given a limit on the backtracking steps for any one component.
+ * Unlike the time budget, whether a board fits in that limit doesn't depend
+ * on how fast the machine is, so simulations that fall back to guessing stay
+ * reproducible.
+ */
+public class ProbabilityEngine {
+
+    // Number of backtracking steps between checks of the time budget.
+    private static final int CHECK_INTERVAL = 4096;
+
+    // Most memoized components to keep before the cache is cleared.
+    private static final int MAX_CACHED = 10000;
+
+    // Components with more variables than this are never enumerated, there
+    // would be far too many solutions to count.
+    private static final int MAX_COMPONENT_VARS = 512;
+
+    // Solution counts for component shapes already enumerated.
+    private final Map<String, Counts> cache = new ConcurrentHashMap<>();
+
+    // Most backtracking steps to spend on any one component.
+    private final long maxComponentSteps;
+
+    /**
+     * Initialize an engine limited only by the time budget of each run.
+     */
+    public ProbabilityEngine() {
+        this(Long.MAX_VALUE);
+    }
+
+    /**
+     * Initialize an engine that gives up (with a TimeoutException) on any
+     * component that takes more than the given number of backtracking steps.
+     */
+    public ProbabilityEngine(long maxComponentSteps) {
+        this.maxComponentSteps = maxComponentSteps;
+    }
+
+    /**
+     * Compute the mine probabilities for a board on the calling thread.
+     * @param board the board, of which only the visible state is used.
+     * @param totalMines the total number of mines on the board.
+     * @param budgetNanos how long to spend before giving up, in nanoseconds.
+     * @throws TimeoutException if the budget runs out.
+     * @throws CancellationException if the thread is interrupted.
+     */
+    public MineProbabilities compute(Board board, int totalMines, long budgetNanos)
+        throws TimeoutException {
+        return new Problem(board, totalMines).solve(System.nanoTime() + budgetNanos);
+    }
+
+    /**
+     * Capture the visible state of a board on the calling thread, and compute
+     * its mine probabilities on the given executor. The board may keep
+     * changing afterwards. Cancel the returned future (with interruption) to
+     * stop the computation.
+     */
+    public Future<MineProbabilities> computeAsync(Board board, int totalMines,
+                                                  long budgetNanos, ExecutorService executor) {
+        Problem p = new Problem(board, totalMines);
+        return executor.submit(() -> p.solve(System.nanoTime() + budgetNanos));
+    }
+
+    // The solutions of one component shape: ways[k] is the number of
+    // solutions with k mines, and mineWays[v][k] the number of those in which
+    // variable v is a mine.
+    private static class Counts {
+        final double[] ways;
+        final double[][] mineWays;
+
+        Counts(int n, int maxMines) {
+            ways = new double[maxMines + 1];
+            mineWays = new double[n][maxMines + 1];
+        }
+    }
+
+    // The visible state of a board: frontier cells as variables, and
+    // revealed numbers as constraints on them.
+    private class Problem {
+        final int numCols;
+        final int totalMines;
+        final long hidden;          // number of hidden cells
+        final long interiorCell;    // one hidden non-frontier cell, or -1
+        final long[] varCell;       // cell index of each variable
+        final int[][] constraintVars;
+        final int[] constraintMines;
+
+        Problem(Board board, int totalMines) {
+            int rows = board.getNumRows();
+            int cols = board.getNumCols();
+            this.numCols = cols;
+            this.totalMines = totalMines;
+            this.hidden = board.getNumCellsRemaining();
+
+            Map<Long, Integer> vars = new HashMap<>();
+            List<Long> cells = new ArrayList<>();
+            List<int[]> cVars = new ArrayList<>();
+            List<Integer> cMines = new ArrayList<>();
+            long interior = -1;
+            int[] buf = new int[8];
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < cols; c++) {
+                    if (!board.isRevealed(r, c)) {
+                        if (interior == -1 && !nextToNumber(board, r, c))
+                            interior = CellQueue.pack(r, c);
+                        continue;
+                    }
+                    if (board.isMine(r, c))
+                        continue;
+                    int n = 0;
+                    for (int nr = r-1; nr <= r+1; nr++) {
+                        for (int nc = c-1; nc <= c+1; nc++) {
+                            if (!board.inBounds(nr, nc) || board.isRevealed(nr, nc))
+                                continue;
+                            long cell = (long)nr * cols + nc;
+                            Integer v = vars.get(cell);
+                            if (v == null) {
+                                v = cells.size();
+                                vars.put(cell, v);
+                                cells.add(cell);
+                            }
+                            buf[n++] = v;
+                        }
+                    }
+                    if (n > 0) {
+                        cVars.add(Arrays.copyOf(buf, n));
+                        cMines.add(board.getNeighborMineCount(r, c));
+                    }
+                }
+            }
+            this.interiorCell = interior;
+            this.varCell = new long[cells.size()];
+            for (int v = 0; v < varCell.length; v++)
+                varCell[v] = cells.get(v);
+            this.constraintVars = cVars.toArray(new int[0][]);
+            this.constraintMines = new int[cMines.size()];
+            for (int k = 0; k < constraintMines.length; k++)
+                constraintMines[k] = cMines.get(k);
+        }
+
+        // Returns true if a hidden cell is next to a revealed number.
+        private boolean nextToNumber(Board board, int r, int c) {
+            for (int nr = r-1; nr <= r+1; nr++)
+                for (int nc = c-1; nc <= c+1; nc++)
+                    if (board.inBounds(nr, nc) && board.isRevealed(nr, nc) && !board.isMine(nr, nc))
+                        return true;
+            return false;
+        }
+
+        MineProbabilities solve(long deadline) throws TimeoutException {
+            int numVars = varCell.length;
+            long interior = hidden - numVars;
+
+            // Split the variables into components with union-find.
+            int[] parent = new int[numVars];
+            for (int v = 0; v < numVars; v++)
+                parent[v] = v;
+            for (int[] vs : constraintVars)
+                for (int k = 1; k < vs.length; k++)
+                    parent[find(parent, vs[k])] = find(parent, vs[0]);
+
+            // Group the variables (in cell order) and constraints by component.
+            Integer[] order = new Integer[numVars];
+            for (int v = 0; v < numVars; v++)
+                order[v] = v;
+            Arrays.sort(order, (a, b) -> Long.compare(varCell[a], varCell[b]));
+            Map<Integer, List<Integer>> compVars = new HashMap<>();
+            for (int v : order)
+                compVars.computeIfAbsent(find(parent, v), k -> new ArrayList<>()).add(v);
+            Map<Integer, List<Integer>> compCons = new HashMap<>();
+            for (int k = 0; k < constraintVars.length; k++)
+                compCons.computeIfAbsent(find(parent, constraintVars[k][0]), x -> new ArrayList<>()).add(k);
+
+            int numComps = compVars.size();
+            int[][] comps = new int[numComps][];
+            Counts[] counts = new Counts[numComps];
+            Checker checker = new Checker(deadline);
+            int j = 0;
+            for (Map.Entry<Integer, List<Integer>> e : compVars.entrySet()) {
+                List<Integer> vs = e.getValue();
+                comps[j] = new int[vs.size()];
+                for (int k = 0; k < comps[j].length; k++)
+                    comps[j][k] = vs.get(k);
+                counts[j] = countComponent(comps[j], compCons.get(e.getKey()), checker);
+                j++;
+            }
+
+            // ways[k] for all components but one, by prefix and suffix
+            // convolutions, so each component can be combined with the rest.
+            double[][] prefix = new double[numComps + 1][];
+            double[][] suffix = new double[numComps + 1][];
+            prefix[0] = new double[] { 1 };
+            suffix[numComps] = new double[] { 1 };
+            for (int k = 0; k < numComps; k++)
+                prefix[k+1] = convolve(prefix[k], counts[k].ways);
+            for (int k = numComps - 1; k >= 0; k--)
+                suffix[k] = convolve(counts[k].ways, suffix[k+1]);
+            double[] all = prefix[numComps];
+
+            // Weight of each frontier mine total k, relative to the largest,
+            // including the ways to place the other mines in the interior.
+            double[] weight = binomialWeights(all, interior, totalMines);
+            double total = 0;
+            for (int k = 0; k < all.length; k++)
+                total += all[k] * weight[k];
+            if (total == 0)
+                throw new IllegalStateException("the visible board has no solution");
+
+            double[] p = new double[numVars];
+            for (int c = 0; c < numComps; c++) {
+                double[] others = convolve(prefix[c], suffix[c+1]);
+                int n = comps[c].length;
+                for (int v = 0; v < n; v++) {
+                    double sum = 0;
+                    double[] mw = counts[c].mineWays[v];
+                    for (int a = 0; a < mw.length; a++) {
+                        if (mw[a] == 0)
+                            continue;
+                        for (int b = 0; b < others.length; b++)
+                            sum += mw[a] * others[b] * weight[a + b];
+                    }
+                    p[comps[c][v]] = sum / total;
+                }
+            }
+
+            double interiorP = 0;
+            if (interior > 0) {
+                double expected = 0;
+                for (int k = 0; k < all.length; k++)
+                    expected += all[k] * weight[k] * (totalMines - k);
+                interiorP = expected / total / interior;
+            }
+
+            long[] sortedCells = new long[numVars];
+            double[] sortedP = new double[numVars];
+            for (int k = 0; k < numVars; k++) {
+                sortedCells[k] = varCell[order[k]];
+                sortedP[k] = p[order[k]];
+            }
+            return new MineProbabilities(numCols, sortedCells, sortedP, interiorP, interiorCell);
+        }
+
+        // Get the solution counts for one component, from the cache if this
+        // shape was seen before. vars must be in cell order.
+        private Counts countComponent(int[] vars, List<Integer> cons, Checker checker)
+            throws TimeoutException {
+            // Local numbering of the variables, and a key describing the
+            // shape of the component in terms of it.
+            Map<Integer, Integer> local = new HashMap<>();
+            for (int k = 0; k < vars.length; k++)
+                local.put(vars[k], k);
+            int[][] lv = new int[cons.size()][];
+            int[] lm = new int[cons.size()];
+            StringBuilder key = new StringBuilder();
+            key.append(vars.length);
+            for (int k = 0; k < lv.length; k++) {
+                int[] vs = constraintVars[cons.get(k)];
+                lv[k] = new int[vs.length];
+                for (int x = 0; x < vs.length; x++)
+                    lv[k][x] = local.get(vs[x]);
+                Arrays.sort(lv[k]);
+                lm[k] = constraintMines[cons.get(k)];
+                key.append('|').append(lm[k]).append(':');
+                for (int x : lv[k])
+                    key.append(x).append(',');
+            }
+            String shape = key.toString();
+            Counts cached = cache.get(shape);
+            if (cached != null)
+                return cached;
+
+            if (vars.length > MAX_COMPONENT_VARS)
+                throw new TimeoutException("component of " + vars.length + " cells is too large");
+            Counts result = new Enumerator(vars.length, lv, lm, checker, maxComponentSteps).run();
+            if (cache.size() >= MAX_CACHED)
+                cache.clear();
+            cache.put(shape, result);
+            return result;
+        }
+    }
+
+    // Backtracking enumeration of the solutions of one component.
+    private static class Enumerator {
+        final int n;
+        final int[][] varCons;    // constraints touching each variable
+        final int[] need;         // mines each constraint needs
+        final int[] placed;       // mines placed so far in each constraint
+        final int[] open;         // unassigned variables left in each constraint
+        final boolean[] mine;     // current assignment
+        final Counts counts;
+        final Checker checker;
+        long stepsLeft;
+
+        Enumerator(int n, int[][] consVars, int[] consMines, Checker checker, long maxSteps) {
+            this.n = n;
+            this.need = consMines;
+            this.placed = new int[consVars.length];
+            this.open = new int[consVars.length];
+            this.mine = new boolean[n];
+            // No solution has more mines than all of the numbers need.
+            long maxMines = 0;
+            for (int m : consMines)
+                maxMines += m;
+            this.counts = new Counts(n, (int)Math.min(n, maxMines));
+            this.checker = checker;
+            this.stepsLeft = maxSteps;
+            int[] deg = new int[n];
+            for (int k = 0; k < consVars.length; k++) {
+                open[k] = consVars[k].length;
+                for (int v : consVars[k])
+                    deg[v]++;
+            }
+            varCons = new int[n][];
+            for (int v = 0; v < n; v++)
+                varCons[v] = new int[deg[v]];
+            for (int k = 0; k < consVars.length; k++)
+                for (int v : consVars[k])
+                    varCons[v][--deg[v]] = k;
+        }
+
+        Counts run() throws TimeoutException {
+            search(0, 0);
+            return counts;
+        }
+
+        private void search(int v, int mines) throws TimeoutException {
+            checker.tick();
+            if (--stepsLeft < 0)
+                throw new TimeoutException("component needs too many steps");
+            if (v == n) {
+                counts.ways[mines]++;
+                for (int x = 0; x < n; x++)
+                    if (mine[x])
+                        counts.mineWays[x][mines]++;
+                return;
+            }
+            for (int value = 0; value <= 1; value++) {
+                boolean ok = true;
+                for (int k : varCons[v]) {
+                    open[k]--;
+                    placed[k] += value;
+                    if (placed[k] > need[k] || placed[k] + open[k] < need[k])
+                        ok = false;
+                }
+                if (ok) {
+                    mine[v] = value == 1;
+                    search(v + 1, mines + value);
+                    mine[v] = false;
+                }
+                for (int k : varCons[v]) {
+                    open[k]++;
+                    placed[k] -= value;
+                }
+            }
+        }
+    }
+
+    // Checks the deadline and the thread's interrupt flag every so often.
+    private static class Checker {
+        final long deadline;
+        int steps = 0;
+
+        Checker(long deadline) {
+            this.deadline = deadline;
+        }
+
+        void tick() throws TimeoutException {
+            if (++steps < CHECK_INTERVAL)
+                return;
+            steps = 0;
+            if (Thread.currentThread().isInterrupted())
+                throw new CancellationException("probability computation was cancelled");
+            if (System.nanoTime() - deadline > 0)
+                throw new TimeoutException("probability computation ran out of time");
+        }
+    }
+
+    // Find the root of v, with path halving.
+    private static int find(int[] parent, int v) {
+        while (parent[v] != v)
+            v = parent[v] = parent[parent[v]];
+        return v;
+    }
+
+    // Convolve two distributions of mine counts.
+    private static double[] convolve(double[] a, double[] b) {
+        double[] c = new double[a.length + b.length - 1];
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == 0)
+                continue;
+            for (int k = 0; k < b.length; k++)
+                c[i + k] += a[i] * b[k];
+        }
+        return c;
+    }
+
+    // For each frontier mine total k, C(interior, totalMines - k), scaled so
+    // the largest possible one is 1. Totals that can't happen get 0. This is
+    // done with logarithms, since the binomials overflow on large boards, and
+    // each one is found from the one before with
+    // C(n, m-1) = C(n, m) * m / (n-m+1).
+    private static double[] binomialWeights(double[] frontierWays, long interior, int totalMines) {
+        int len = frontierWays.length;
+        double[] logC = new double[len];
+        Arrays.fill(logC, Double.NEGATIVE_INFINITY);
+        double max = Double.NEGATIVE_INFINITY;
+        double log = 0;
+        boolean started = false;
+        for (int k = 0; k < len; k++) {
+            long m = totalMines - k;
+            if (m < 0)
+                break;
+            if (m > interior)
+                continue;
+            if (!started) {
+                log = logBinomial(interior, m);
+                started = true;
+            } else {
+                log += Math.log(m + 1) - Math.log(interior - m);
+            }
+            if (frontierWays[k] != 0) {
+                logC[k] = log;
+                max = Math.max(max, log);
+            }
+        }
+        double[] w = new double[len];
+        for (int k = 0; k < len; k++)
+            w[k] = logC[k] == Double.NEGATIVE_INFINITY ? 0 : Math.exp(logC[k] - max);
+        return w;
+    }
+
+    // log C(n, k), summing logs over the smaller of k and n-k terms.
+    private static double logBinomial(long n, long k) {
+        k = Math.min(k, n - k);
+        double s = 0;
+        for (long i = 0; i < k; i++)
+            s += Math.log(n - i) - Math.log(i + 1);
+        return s;
+    }
+}
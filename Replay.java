@@ -0,0 +1,352 @@
+/*----------------------------------------------------------------
+ *  Author:   Kayleigh Crosby
+ *  Email:    kacros23@g.holycross.edu
+ *  Written:  10/17/2026
+ *
+ *  Replay holds a recorded game, and plays it back on a Board
+ *  without any GUI.
+ *
+ *  Example: java Replay game-1234.replay # play back a saved game
+ *
+ *----------------------------------------------------------------*/
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+
+/**
+ * A <i>Replay</i> is a complete record of one game: the seed the mines were
+ * deployed from, the difficulty and size of the board, every click the player
+ * made with when it was made, and the result the player's game claimed. Since
+ * the mines are deployed from the seed exactly as Minesweeper does (drawn from
+ * a SplittableRandom, or placed by a MineOracle if the game was), and moved
+ * away from the first click the same way (see Board.setFirstClickSafe),
+ * playing the clicks back on a new Board reproduces the game exactly.
+ *
+ * The clicks are kept encoded, as made by GameRecorder, and decoded as they
+ * are played back. Each click is two variable-length integers (varints, 7 bits
+ * per byte): first the change in cell index from the previous click, zigzag
+ * encoded so small steps either way stay small, shifted left one bit to make
+ * room for the button, then the time since the previous click, in TICK_MILLIS
+ * units. Most clicks take 2 or 3 bytes.
+ */
+public class Replay {
+
+    /**
+     * Length of one unit of time between clicks, in milliseconds.
+     */
+    public static final int TICK_MILLIS = 10;
+
+    // "MSRP", for Minesweeper replay.
+    private static final int MAGIC = 0x4d535250;
+    private static final int VERSION = 3;
+
+    private final long seed;
+    private final String difficulty;
+    private final int numRows;
+    private final int numCols;
+    private final int numMines;
+    private final int firstClickSafe;
+    private final boolean oracle;
+
+    // The encoded clicks.
+    private final byte[] moves;
+    private final int movesLength;
+    private final int numMoves;
+
+    // What the player's game reported at the end.
+    private final boolean claimedWon;
+    private final int claimedSeconds;
+
+    /**
+     * Initialize a replay from its parts. GameRecorder makes these.
+     */
+    Replay(long seed, String difficulty, int numRows, int numCols, int numMines, int firstClickSafe,
+           boolean oracle, byte[] moves, int movesLength, int numMoves, boolean claimedWon, int claimedSeconds) {
+        this.seed = seed;
+        this.difficulty = difficulty;
+        this.numRows = numRows;
+        this.numCols = numCols;
+        this.numMines = numMines;
+        this.firstClickSafe = firstClickSafe;
+        this.oracle = oracle;
+        this.moves = moves;
+        this.movesLength = movesLength;
+        this.numMoves = numMoves;
+        this.claimedWon = claimedWon;
+        this.claimedSeconds = claimedSeconds;
+    }
+
+    /**
+     * Get the seed the mines were deployed from.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Get the difficulty level of the game.
+     */
+    public String getDifficulty() {
+        return difficulty;
+    }
+
+    /**
+     * Get the number of rows on the board.
+     */
+    public int getNumRows() {
+        return numRows;
+    }
+
+    /**
+     * Get the number of columns on the board.
+     */
+    public int getNumCols() {
+        return numCols;
+    }
+
+    /**
+     * Get the number of mines on the board.
+     */
+    public int getNumMines() {
+        return numMines;
+    }
+
+    /**
+     * Get the first click safety mode of the game, see
+     * Board.setFirstClickSafe().
+     */
+    public int getFirstClickSafe() {
+        return firstClickSafe;
+    }
+
+    /**
+     * Returns true if the mines were placed by a MineOracle for the seed,
+     * instead of drawn from a SplittableRandom.
+     */
+    public boolean isOracleDeployed() {
+        return oracle;
+    }
+
+    /**
+     * Get the number of clicks recorded.
+     */
+    public int getNumMoves() {
+        return numMoves;
+    }
+
+    /**
+     * Get the number of bytes the encoded clicks take.
+     */
+    public int getMovesLength() {
+        return movesLength;
+    }
+
+    /**
+     * Returns true if the player's game said it was won.
+     */
+    public boolean getClaimedWon() {
+        return claimedWon;
+    }
+
+    /**
+     * Get the time the player's game showed at the end, in seconds, or -1 if
+     * the game wasn't finished.
+     */
+    public int getClaimedSeconds() {
+        return claimedSeconds;
+    }
+
+    /**
+     * Make a new board with the mines deployed just as in the recorded game,
+     * before any clicks, and the same first click safety.
+     */
+    public Board newBoard() {
+        Board board = new Board(numRows, numCols);
+        if (oracle)
+            board.deployMines(new MineOracle(seed, numRows, numCols, numMines));
+        else
+            board.deployMines(numMines, new SplittableRandom(seed));
+        board.setFirstClickSafe(firstClickSafe, seed);
+        return board;
+    }
+
+    /**
+     * Play the whole game back on a new board.
+     * @return the board after the last click.
+     * @throws IllegalStateException if a click is off the board.
+     */
+    public Board play() {
+        Board board = newBoard();
+        Cursor m = cursor();
+        while (m.next())
+            board.click(m.row, m.col, m.button);
+        return board;
+    }
+
+    /**
+     * Get a cursor for reading the clicks one at a time, from the first.
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * A <i>Cursor</i> decodes the clicks of a replay in order. After each
+     * call to next() returns true, its fields hold that click.
+     */
+    public class Cursor {
+
+        /** Row and column of the click. */
+        public int row, col;
+
+        /** Board.LEFT or Board.RIGHT. */
+        public int button;
+
+        /** Time of the click, in milliseconds since recording started. */
+        public long millis;
+
+        private int pos = 0;
+        private int count = 0;
+        private long cell = 0;
+
+        /**
+         * Move to the next click.
+         * @return false if there are no more clicks.
+         * @throws IllegalStateException if the click is off the board or the
+         * data is damaged.
+         */
+        public boolean next() {
+            if (count == numMoves)
+                return false;
+            long word = readVarint();
+            button = (int)(word & 1);
+            long z = word >>> 1;
+            cell += (z >>> 1) ^ -(z & 1); // undo zigzag
+            millis += readVarint() * TICK_MILLIS;
+            if (cell < 0 || cell >= (long)numRows * numCols)
+                throw new IllegalStateException("click " + count + " is off the board");
+            row = (int)(cell / numCols);
+            col = (int)(cell % numCols);
+            count++;
+            return true;
+        }
+
+        // Decode one varint from the moves.
+        private long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (pos >= movesLength)
+                    throw new IllegalStateException("replay is cut short");
+                byte b = moves[pos++];
+                value |= (long)(b & 0x7f) << shift;
+                if (b >= 0)
+                    return value;
+            }
+            throw new IllegalStateException("replay is damaged");
+        }
+    }
+
+    /**
+     * Write this replay to a stream.
+     * @throws IOException if the stream can't be written.
+     */
+    public void write(OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(seed);
+        out.writeUTF(difficulty);
+        out.writeInt(numRows);
+        out.writeInt(numCols);
+        out.writeInt(numMines);
+        out.writeByte(firstClickSafe);
+        out.writeBoolean(oracle);
+        out.writeBoolean(claimedWon);
+        out.writeInt(claimedSeconds);
+        out.writeInt(numMoves);
+        out.writeInt(movesLength);
+        out.write(moves, 0, movesLength);
+        out.flush();
+    }
+
+    /**
+     * Write this replay to a file.
+     * @throws IOException if the file can't be written.
+     */
+    public void save(String filename) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(Paths.get(filename)))) {
+            write(out);
+        }
+    }
+
+    /**
+     * Read a replay written by write(). Replays from before first click
+     * safety (version 1) are read as having none, and replays from before
+     * MineOracle games (versions 1 and 2) as drawn from a SplittableRandom.
+     * @throws IOException if the stream can't be read or isn't a replay.
+     */
+    public static Replay read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        if (in.readInt() != MAGIC)
+            throw new IOException("not a replay");
+        int version = in.readInt();
+        if (version < 1 || version > VERSION)
+            throw new IOException("unknown replay version " + version);
+        long seed = in.readLong();
+        String difficulty = in.readUTF();
+        int rows = in.readInt();
+        int cols = in.readInt();
+        int mines = in.readInt();
+        int safe = version >= 2 ? in.readByte() : Board.SAFE_NONE;
+        boolean oracle = version >= 3 && in.readBoolean();
+        boolean won = in.readBoolean();
+        int seconds = in.readInt();
+        int numMoves = in.readInt();
+        int length = in.readInt();
+        if (rows <= 0 || cols <= 0 || mines < 0 || mines > (long)rows * cols
+            || safe < Board.SAFE_NONE || safe > Board.SAFE_AREA || numMoves < 0 || length < 0 || length > 20L * numMoves)
+            throw new IOException("replay header is damaged");
+        byte[] moves = new byte[length];
+        in.readFully(moves);
+        return new Replay(seed, difficulty, rows, cols, mines, safe, oracle, moves, length, numMoves, won, seconds);
+    }
+
+    /**
+     * Read a replay from a file.
+     * @throws IOException if the file can't be read or isn't a replay.
+     */
+    public static Replay load(String filename) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(Paths.get(filename)))) {
+            return read(in);
+        }
+    }
+
+    /**
+     * The main() program plays back a replay file and prints the result.
+     */
+    public static void main(String args[]) throws IOException {
+        if (args.length != 1) {
+            System.out.println("Usage: java Replay game.replay");
+            return;
+        }
+        Replay replay = load(args[0]);
+        long start = System.nanoTime();
+        Board board = replay.play();
+        long nanos = System.nanoTime() - start;
+        System.out.printf("Seed %d, %s, %dx%d with %d mines, %d clicks in %d bytes%n",
+                          replay.getSeed(), replay.getDifficulty(), replay.getNumRows(),
+                          replay.getNumCols(), replay.getNumMines(), replay.getNumMoves(),
+                          replay.getMovesLength());
+        System.out.printf("Replayed in %.3f ms: %s (game claimed %s in %d seconds)%n",
+                          nanos / 1e6, board.isWon() ? "won" : board.isLost() ? "lost" : "unfinished",
+                          replay.getClaimedWon() ? "won" : "not won", replay.getClaimedSeconds());
+    }
+}
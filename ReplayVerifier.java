@@ -0,0 +1,340 @@
+/*----------------------------------------------------------------
+ *  Author:   Kayleigh Crosby
+ *  Email:    kacros23@g.holycross.edu
+ *  Written:  10/17/2026
+ *
+ *  ReplayVerifier checks submitted replays by playing them back,
+ *  and admits only honest scores to a ScoreBoard.
+ *
+ *  Example: java ReplayVerifier *.replay # check replays, print verdicts
+ *
+ *----------------------------------------------------------------*/
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A <i>ReplayVerifier</i> decides whether a submitted game really earned its
+ * score. The game's own timer can't be trusted, so instead the verifier plays
+ * the submitted Replay back from its seed, click by click, and accepts it only
+ * if:
+ *   - the board size and mine count are the standard ones for the difficulty
+ *     (see Minesweeper.minesFor), so a "hard" game really had hard's mines,
+ *   - every click is on the board, and none come after the game ended,
+ *   - the clicks win the game, and the game claimed to be won,
+ *   - no one-second stretch holds more than MAX_CLICKS_PER_SECOND clicks,
+ *     faster than any person can click,
+ *   - the claimed time agrees, within TIME_TOLERANCE_SECONDS, with the time
+ *     from the first reveal (when the game's timer starts) to the last click.
+ * An accepted score is inserted into the ScoreBoard.
+ *
+ * The seed comes from the player too, so a player could look for a seed with
+ * an easy board and play that. To stop that, the verifier hands out the
+ * seeds games are played with, from issueSeed(), and admits a replay only if
+ * its seed was handed out in the last SEED_LIFETIME_MILLIS and hasn't been
+ * submitted before. Each seed is good for one submission, honest or not.
+ * Replays of no-guess games carry their layout's seed instead of the one
+ * they started from, so they are never admitted.
+ *
+ * Replays are checked on a pool of worker threads, one per core by default.
+ * Each check only reads its own Replay and plays it on its own Board, so the
+ * workers share nothing but the ScoreBoard, which is safe for many threads.
+ * Playing back a game takes tens of microseconds, so even one core checks
+ * thousands of replays a second.
+ */
+public class ReplayVerifier implements Closeable {
+
+    /**
+     * Most clicks allowed within any one second.
+     */
+    public static final int MAX_CLICKS_PER_SECOND = 20;
+
+    /**
+     * Largest difference allowed between the claimed time and the time the
+     * clicks took, in seconds.
+     */
+    public static final int TIME_TOLERANCE_SECONDS = 1;
+
+    /**
+     * Time after a seed is issued when a replay of it is no longer admitted,
+     * in milliseconds.
+     */
+    public static final long SEED_LIFETIME_MILLIS = 6 * 60 * 60 * 1000L;
+
+    /**
+     * The outcome of checking one replay.
+     */
+    public static final class Verdict {
+
+        private final String name;
+        private final String difficulty;
+        private final int seconds;
+        private final String reason;
+        private final int rank;
+
+        private Verdict(String name, String difficulty, int seconds, String reason, int rank) {
+            this.name = name;
+            this.difficulty = difficulty;
+            this.seconds = seconds;
+            this.reason = reason;
+            this.rank = rank;
+        }
+
+        /**
+         * Returns true if the replay was honest and its score was admitted.
+         */
+        public boolean isAccepted() {
+            return reason == null;
+        }
+
+        /**
+         * Get the reason the replay was rejected, or null if it was accepted.
+         */
+        public String getReason() {
+            return reason;
+        }
+
+        /**
+         * Get the name of the player who submitted the replay.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Get the difficulty level the replay claimed, or null if it couldn't
+         * be read.
+         */
+        public String getDifficulty() {
+            return difficulty;
+        }
+
+        /**
+         * Get the time the replay claimed, in seconds, or -1 if it couldn't be
+         * read.
+         */
+        public int getSeconds() {
+            return seconds;
+        }
+
+        /**
+         * Get the position the score took on the board, where 0 is the best,
+         * or -1 if it was rejected or didn't make the board.
+         */
+        public int getRank() {
+            return rank;
+        }
+
+        public String toString() {
+            if (reason != null)
+                return name + ": rejected, " + reason;
+            return name + ": accepted, " + seconds + " seconds at " + difficulty
+                + (rank < 0 ? "" : ", position " + (rank + 1));
+        }
+    }
+
+    private final ScoreBoard scores;
+    private final ExecutorService workers;
+
+    // Seeds issued and not yet submitted, with the time each was issued, in
+    // the order they were issued. Guarded by this verifier's lock.
+    private final Map<Long, Long> issued = new LinkedHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * Initialize a verifier that admits scores to the given board, checking
+     * replays on one thread per core.
+     */
+    public ReplayVerifier(ScoreBoard scores) {
+        this(scores, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Initialize a verifier that admits scores to the given board, checking
+     * replays on the given number of threads.
+     */
+    public ReplayVerifier(ScoreBoard scores, int numThreads) {
+        this.scores = scores;
+        this.workers = Executors.newFixedThreadPool(numThreads, r -> {
+            Thread t = new Thread(r, "ReplayVerifier worker");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Queue a replay to be checked on a worker thread.
+     * @param name the player who submitted it.
+     * @return a future holding the verdict.
+     */
+    public Future<Verdict> submit(String name, Replay replay) {
+        return workers.submit(() -> admit(name, replay));
+    }
+
+    /**
+     * Queue a replay file to be read and checked on a worker thread. A file
+     * that can't be read is rejected.
+     * @param name the player who submitted it.
+     * @return a future holding the verdict.
+     */
+    public Future<Verdict> submit(String name, String filename) {
+        return workers.submit(() -> {
+            Replay replay;
+            try {
+                replay = Replay.load(filename);
+            } catch (IOException e) {
+                return new Verdict(name, null, -1, "can't read " + filename + ": " + e.getMessage(), -1);
+            }
+            return admit(name, replay);
+        });
+    }
+
+    /**
+     * Issue a seed for a new game, which a replay of the game can be admitted
+     * with once. Seeds are chosen at random from 0 to Integer.MAX_VALUE - 1,
+     * so Minesweeper can play them.
+     */
+    public synchronized long issueSeed() {
+        long seed;
+        do {
+            seed = random.nextInt(Integer.MAX_VALUE);
+        } while (issued.containsKey(seed));
+        issue(seed);
+        return seed;
+    }
+
+    /**
+     * Check a replay on the calling thread, and insert its score into the
+     * board if it is accepted. This uses up the replay's seed.
+     * @param name the player who submitted it.
+     */
+    public Verdict admit(String name, Replay replay) {
+        String reason = claimSeed(replay.getSeed()) ? check(replay)
+            : "seed " + replay.getSeed() + " wasn't issued, or was already used";
+        int rank = -1;
+        if (reason == null)
+            rank = scores.insert(replay.getDifficulty(), name, replay.getClaimedSeconds());
+        return new Verdict(name, replay.getDifficulty(), replay.getClaimedSeconds(), reason, rank);
+    }
+
+    // Record a seed as issued now, and forget the seeds issued too long ago.
+    private synchronized void issue(long seed) {
+        long now = System.currentTimeMillis();
+        issued.put(seed, now);
+        Iterator<Long> times = issued.values().iterator();
+        while (times.hasNext() && now - times.next() > SEED_LIFETIME_MILLIS)
+            times.remove();
+    }
+
+    // Take a seed out of the ones issued, and return true if it was issued
+    // recently enough.
+    private synchronized boolean claimSeed(long seed) {
+        Long time = issued.remove(seed);
+        return time != null && System.currentTimeMillis() - time <= SEED_LIFETIME_MILLIS;
+    }
+
+    /**
+     * Stop the worker threads, after the replays already queued are checked.
+     */
+    public void close() {
+        workers.shutdown();
+    }
+
+    /**
+     * Play a replay back and check that it earned the time it claims, without
+     * touching any score board or checking where its seed came from. This can
+     * be called from any thread.
+     * @return null if the replay is honest, or else the reason it isn't.
+     */
+    public static String check(Replay replay) {
+        int rows = replay.getNumRows(), cols = replay.getNumCols();
+        int mines = Minesweeper.minesFor(replay.getDifficulty(), rows, cols);
+        if (mines < 0)
+            return "unknown difficulty " + replay.getDifficulty();
+        if (replay.getNumMines() != mines)
+            return replay.getNumMines() + " mines instead of " + mines;
+        if (!replay.getClaimedWon())
+            return "the game was not won";
+        if (replay.getClaimedSeconds() < 0)
+            return "no time was claimed";
+
+        Board board = replay.newBoard();
+        Replay.Cursor m = replay.cursor();
+        // Times of the last MAX_CLICKS_PER_SECOND clicks, in a ring.
+        long[] recent = new long[MAX_CLICKS_PER_SECOND];
+        long startMillis = -1, endMillis = 0;
+        try {
+            for (int i = 0; m.next(); i++) {
+                if (board.isGameOver())
+                    return "click " + i + " comes after the game ended";
+                if (i >= recent.length && m.millis - recent[i % recent.length] < 1000)
+                    return "more than " + MAX_CLICKS_PER_SECOND + " clicks in one second";
+                recent[i % recent.length] = m.millis;
+                if (startMillis < 0 && m.button == Board.LEFT && !board.isRevealed(m.row, m.col))
+                    startMillis = m.millis;
+                board.click(m.row, m.col, m.button);
+                endMillis = m.millis;
+            }
+        } catch (IllegalStateException e) {
+            return e.getMessage();
+        }
+        if (!board.isWon())
+            return "the clicks don't win the game";
+
+        long millis = endMillis - startMillis;
+        long claimed = replay.getClaimedSeconds() * 1000L;
+        if (Math.abs(claimed - millis) > TIME_TOLERANCE_SECONDS * 1000L + Replay.TICK_MILLIS)
+            return "claimed " + replay.getClaimedSeconds() + " seconds, but the clicks took "
+                + (millis / 1000.0) + " seconds";
+        return null;
+    }
+
+    /**
+     * The main() program checks each replay file given, on every core,
+     * prints the verdicts, and then the best scores admitted. Whoever runs it
+     * is taken to have issued the seeds of the files.
+     */
+    public static void main(String args[]) throws InterruptedException, ExecutionException {
+        if (args.length == 0) {
+            System.out.println("Usage: java ReplayVerifier file.replay ...");
+            return;
+        }
+        ScoreBoard board = new ScoreBoard(Leaderboard.MAX_NUM_SCORES);
+        long start = System.nanoTime();
+        List<Future<Verdict>> verdicts = new ArrayList<>();
+        try (ReplayVerifier verifier = new ReplayVerifier(board)) {
+            for (String filename : args) {
+                try {
+                    verifier.issue(Replay.load(filename).getSeed());
+                } catch (IOException e) {
+                    // submit() rejects it
+                }
+                verdicts.add(verifier.submit(filename, filename));
+            }
+            int accepted = 0;
+            for (Future<Verdict> v : verdicts) {
+                System.out.println(v.get());
+                if (v.get().isAccepted())
+                    accepted++;
+            }
+            double secs = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%d of %d replays accepted, %.0f replays/s%n",
+                              accepted, args.length, args.length / secs);
+        }
+        for (String level : new String[] { "easy", "medium", "hard" }) {
+            ScoreBoard.Snapshot top = board.getTop(level);
+            for (int i = 0; i < top.size(); i++)
+                System.out.println(level + " " + (i + 1) + ". " + top.getName(i) + " " + top.getScore(i));
+        }
+    }
+}
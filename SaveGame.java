@@ -0,0 +1,435 @@
+/*----------------------------------------------------------------
+ *  Author:   Kayleigh Crosby
+ *  Email:    kacros23@g.holycross.edu
+ *  Written:  10/17/2026
+ *
+ *  SaveGame saves a game in progress to a binary file, and
+ *  restores it later.
+ *----------------------------------------------------------------*/
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A <i>SaveGame</i> keeps a file holding a snapshot of one game in progress:
+ * the seed and difficulty, the time on the timer, the board's counters, and
+ * the board's storage chunks (see Board) copied as they are, a whole chunk at
+ * a time, with no per-cell work and no object serialization.
+ *
+ * The file has a fixed layout, so a save can rewrite just what changed:
+ *   - a header, HEADER_BYTES long: magic number, version, seed, size, the
+ *     board's counters, state, and first click safety, the timer, and the
+ *     difficulty. A state bit says if the mines were placed by a MineOracle
+ *     for the seed; saves from before that have it clear.
+ *   - a directory with one byte per chunk, saying which of the chunk's
+ *     arrays (mines, revealed, flags, counts) exist.
+ *   - one slot per chunk, starting at the next 4 KB page, holding the
+ *     chunk's mine, revealed, and flag bits, then its counts. A board
+ *     smaller than one chunk gets slots just big enough for its cells, so
+ *     a 20x30 game is read and written in under a kilobyte. Slots of chunks
+ *     that don't exist are never written, so they take no disk space.
+ *
+ * A SaveGame listens to its board, and remembers which chunks had cells
+ * revealed or flagged since the last save. The first save writes everything
+ * to a temporary file, which is renamed over the old one. After that, each
+ * save writes only the revealed and flag bits of the changed chunks, then the
+ * header, so autosaving after every move costs a few small writes even on a
+ * huge board. These later saves reach the operating system, so they survive
+ * the program crashing, but are not forced to the disk.
+ */
+public class SaveGame implements BoardListener, Closeable {
+
+    /**
+     * The file games are saved to by default.
+     */
+    public static final String DEFAULT_FILE = "minesweeper.save";
+
+    // "MSSV", for Minesweeper save.
+    private static final int MAGIC = 0x4d535356;
+    private static final int VERSION = 1;
+
+    // Bytes in the fixed part of the header, and most bytes of difficulty.
+    private static final int HEADER_BYTES = 112;
+    private static final int MAX_DIFFICULTY_BYTES = HEADER_BYTES - 50;
+
+
+    // Directory bits, for which arrays of a chunk exist.
+    private static final int HAS_MINES = 1, HAS_REVEALED = 2, HAS_FLAGS = 4, HAS_COUNTS = 8;
+
+    // Header state bits.
+    private static final int LOST = 1, WON = 2, ALL_REVEALED = 4, ORACLE = 8;
+
+    private final Path path;
+    private final Path tempPath;
+    private final Board board;
+    private final long seed;
+    private final boolean oracle;
+    private final String difficulty;
+    private int elapsedSeconds;
+
+    // Offset of the first chunk's slot, number of cells saved from each
+    // chunk (a multiple of 64), and the offsets of each kind of storage in a
+    // slot, which is recordBytes long.
+    private final long dataStart;
+    private final int slotCells;
+    private final int revealedOffset, flagsOffset, countsOffset, recordBytes;
+
+    // The header and directory, and room for one chunk's slot.
+    private final ByteBuffer header;
+    private final ByteBuffer record;
+
+    // Open on the save file, or null before the first save or after delete().
+    private FileChannel channel;
+    private boolean deleted = false;
+
+    // One bit per chunk, set if the chunk changed since the last save, and
+    // whether the board changed too much for that, so the next save has to
+    // write everything.
+    private final long[] dirty;
+    private boolean fullSaveNeeded = false;
+
+    /**
+     * Make a save file for a game on the given board, whose mines were
+     * deployed from the given seed, by a MineOracle if oracle is true, and
+     * start watching the board for changes. Nothing is written until the
+     * first save().
+     */
+    public static SaveGame watch(String filename, Board board, long seed, String difficulty,
+                                 boolean oracle) {
+        SaveGame save = new SaveGame(filename, board, seed, difficulty, oracle);
+        board.addListener(save);
+        return save;
+    }
+
+    // Use watch() or restore(), which register the save on the board once it
+    // is made.
+    private SaveGame(String filename, Board board, long seed, String difficulty, boolean oracle) {
+        byte[] d = difficulty.getBytes(StandardCharsets.UTF_8);
+        if (d.length > MAX_DIFFICULTY_BYTES)
+            throw new IllegalArgumentException("difficulty name is too long: " + difficulty);
+        this.path = Paths.get(filename);
+        this.tempPath = Paths.get(filename + ".tmp");
+        this.board = board;
+        this.seed = seed;
+        this.oracle = oracle;
+        this.difficulty = difficulty;
+        int numChunks = board.getNumChunks();
+        long start = HEADER_BYTES + (long)numChunks;
+        this.dataStart = (start + 4095) & ~4095L;
+        if (dataStart > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("board is too large to save");
+        this.header = ByteBuffer.allocateDirect((int)start).order(ByteOrder.LITTLE_ENDIAN);
+        this.slotCells = board.getChunkCells();
+        this.revealedOffset = slotCells / 8;
+        this.flagsOffset = 2 * revealedOffset;
+        this.countsOffset = 3 * revealedOffset;
+        this.recordBytes = countsOffset + slotCells;
+        this.record = ByteBuffer.allocateDirect(recordBytes).order(ByteOrder.LITTLE_ENDIAN);
+        this.dirty = new long[(numChunks + 63) >>> 6];
+    }
+
+    /**
+     * Returns true if a save file with the given name exists.
+     */
+    public static boolean exists(String filename) {
+        return Files.exists(Paths.get(filename));
+    }
+
+    /**
+     * Get the board being saved.
+     */
+    public Board getBoard() {
+        return board;
+    }
+
+    /**
+     * Get the seed the mines were deployed from.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns true if the mines were placed by a MineOracle for the seed,
+     * instead of drawn from a SplittableRandom.
+     */
+    public boolean isOracleDeployed() {
+        return oracle;
+    }
+
+    /**
+     * Get the difficulty level of the game.
+     */
+    public String getDifficulty() {
+        return difficulty;
+    }
+
+    /**
+     * Get the time on the timer at the last save, in seconds.
+     */
+    public int getElapsedSeconds() {
+        return elapsedSeconds;
+    }
+
+    /**
+     * Save the game. The first save writes the whole board, and later ones
+     * write only the chunks that changed since the save before.
+     * @param elapsedSeconds the time on the game's timer.
+     * @throws IOException if the file can't be written.
+     */
+    public void save(int elapsedSeconds) throws IOException {
+        if (deleted)
+            return;
+        this.elapsedSeconds = elapsedSeconds;
+        if (channel == null || fullSaveNeeded) {
+            saveAll();
+            return;
+        }
+        for (int w = 0; w < dirty.length; w++) {
+            for (long bits = dirty[w]; bits != 0; bits &= bits - 1) {
+                int k = (w << 6) + Long.numberOfTrailingZeros(bits);
+                record.clear();
+                putLongs(revealedOffset, board.getRevealedChunk(k));
+                putLongs(flagsOffset, board.getFlagChunk(k));
+                record.position(revealedOffset).limit(countsOffset);
+                write(channel, record, slot(k) + revealedOffset);
+                // Mines and counts are only written by full saves.
+                int kept = header.get(HEADER_BYTES + k) & (HAS_MINES | HAS_COUNTS);
+                header.put(HEADER_BYTES + k, (byte)(kept | (presence(k) & (HAS_REVEALED | HAS_FLAGS))));
+            }
+            dirty[w] = 0;
+        }
+        putHeader();
+        write(channel, header.clear(), 0);
+    }
+
+    /**
+     * Save the whole game to a temporary file, force it to the disk, then
+     * rename it over the save file.
+     * @throws IOException if the file can't be written.
+     */
+    public void saveAll() throws IOException {
+        if (deleted)
+            return;
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+        try (FileChannel out = FileChannel.open(tempPath, StandardOpenOption.CREATE,
+                                                StandardOpenOption.WRITE,
+                                                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (int k = 0; k < board.getNumChunks(); k++) {
+                byte has = presence(k);
+                header.put(HEADER_BYTES + k, has);
+                if (has == 0)
+                    continue;
+                record.clear();
+                putLongs(0, board.getMineChunk(k));
+                putLongs(revealedOffset, board.getRevealedChunk(k));
+                putLongs(flagsOffset, board.getFlagChunk(k));
+                byte[] counts = board.getCountChunk(k);
+                if (counts != null)
+                    record.put(countsOffset, counts, 0, slotCells);
+                else
+                    record.put(countsOffset, new byte[slotCells]);
+                write(out, record.clear(), slot(k));
+            }
+            putHeader();
+            write(out, header.clear(), 0);
+            out.force(true);
+        }
+        Files.move(tempPath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        channel = FileChannel.open(path, StandardOpenOption.WRITE);
+        Arrays.fill(dirty, 0L);
+        fullSaveNeeded = false;
+    }
+
+    /**
+     * Restore a game from a save file. The SaveGame returned watches the
+     * restored board and saves back to the same file.
+     * @throws IOException if the file can't be read or isn't a save file.
+     */
+    public static SaveGame restore(String filename) throws IOException {
+        try (FileChannel in = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            ByteBuffer fixed = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            read(in, fixed, 0);
+            if (fixed.getInt(0) != MAGIC || fixed.getInt(4) != VERSION)
+                throw new IOException(filename + " is not a saved game");
+            long seed = fixed.getLong(8);
+            int rows = fixed.getInt(16);
+            int cols = fixed.getInt(20);
+            int numMines = fixed.getInt(24);
+            int numFlags = fixed.getInt(28);
+            long numRevealed = fixed.getLong(32);
+            int state = fixed.get(40);
+            int safe = fixed.get(41);
+            int elapsed = fixed.getInt(44);
+            int length = fixed.getShort(48);
+            if (rows <= 0 || cols <= 0 || length < 0 || length > MAX_DIFFICULTY_BYTES
+                || safe < Board.SAFE_NONE || safe > Board.SAFE_AREA)
+                throw new IOException(filename + " is damaged");
+            byte[] d = new byte[length];
+            fixed.get(50, d);
+            String difficulty = new String(d, StandardCharsets.UTF_8);
+
+            Board board = new Board(rows, cols);
+            board.setFirstClickSafe(safe, seed);
+            SaveGame save = new SaveGame(filename, board, seed, difficulty, (state & ORACLE) != 0);
+            save.elapsedSeconds = elapsed;
+            read(in, save.header.clear(), 0);
+            ByteBuffer record = save.record;
+            for (int k = 0; k < board.getNumChunks(); k++) {
+                int has = save.header.get(HEADER_BYTES + k);
+                if (has == 0)
+                    continue;
+                // A chunk whose counts didn't exist at the last full save
+                // may have had only its revealed and flag bits written.
+                record.clear().limit((has & HAS_COUNTS) != 0 ? save.recordBytes : save.countsOffset);
+                read(in, record, save.slot(k));
+                board.restoreChunk(k,
+                                   (has & HAS_MINES) != 0 ? save.getLongs(0) : null,
+                                   (has & HAS_REVEALED) != 0 ? save.getLongs(save.revealedOffset) : null,
+                                   (has & HAS_FLAGS) != 0 ? save.getLongs(save.flagsOffset) : null,
+                                   (has & HAS_COUNTS) != 0 ? save.getBytes(save.countsOffset) : null);
+            }
+            board.restoreState(numMines, numRevealed, numFlags, (state & LOST) != 0,
+                               (state & WON) != 0, (state & ALL_REVEALED) != 0);
+            save.channel = FileChannel.open(save.path, StandardOpenOption.WRITE);
+            board.addListener(save);
+            return save;
+        }
+    }
+
+    /**
+     * Delete the save file, e.g. because the game is over, and stop saving.
+     * @throws IOException if the file can't be deleted.
+     */
+    public void delete() throws IOException {
+        close();
+        deleted = true;
+        Files.deleteIfExists(path);
+    }
+
+    /**
+     * Stop watching the board, and close the save file.
+     * @throws IOException if the file can't be closed.
+     */
+    public void close() throws IOException {
+        board.removeListener(this);
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    /**
+     * Respond to a cell being revealed or flagged, by remembering that its
+     * chunk needs saving.
+     */
+    public void cellChanged(int row, int col) {
+        int k = (int)(((long)row * board.getNumCols() + col) >>> Board.CHUNK_BITS);
+        dirty[k >>> 6] |= 1L << k;
+    }
+
+    /**
+     * Respond to many cells changing at once (which may include the mines),
+     * by saving everything the next time.
+     */
+    public void boardChanged() {
+        fullSaveNeeded = true;
+    }
+
+    /**
+     * Respond to the game ending. There is nothing to do here, the game
+     * decides whether to delete() the save.
+     */
+    public void gameOver(boolean won) {
+    }
+
+    // Fill in the fixed part of the header from the board.
+    private void putHeader() {
+        byte[] d = difficulty.getBytes(StandardCharsets.UTF_8);
+        int state = (board.isLost() ? LOST : 0) | (board.isWon() ? WON : 0)
+            | (board.isAllRevealed() ? ALL_REVEALED : 0) | (oracle ? ORACLE : 0);
+        header.putInt(0, MAGIC)
+            .putInt(4, VERSION)
+            .putLong(8, seed)
+            .putInt(16, board.getNumRows())
+            .putInt(20, board.getNumCols())
+            .putInt(24, board.getNumMines())
+            .putInt(28, board.getNumFlags())
+            .putLong(32, board.getNumRevealed())
+            .put(40, (byte)state)
+            .put(41, (byte)board.getFirstClickSafe())
+            .putInt(44, elapsedSeconds)
+            .putShort(48, (short)d.length)
+            .put(50, d);
+    }
+
+    // The directory byte for chunk k of the board.
+    private byte presence(int k) {
+        return (byte)((board.getMineChunk(k) != null ? HAS_MINES : 0)
+                      | (board.getRevealedChunk(k) != null ? HAS_REVEALED : 0)
+                      | (board.getFlagChunk(k) != null ? HAS_FLAGS : 0)
+                      | (board.getCountChunk(k) != null ? HAS_COUNTS : 0));
+    }
+
+    // File offset of chunk k's slot.
+    private long slot(int k) {
+        return dataStart + (long)k * recordBytes;
+    }
+
+    // Copy a chunk of bits into the record at the given offset, or zeros if
+    // the chunk doesn't exist.
+    private void putLongs(int offset, long[] words) {
+        if (words != null) {
+            record.position(offset);
+            record.asLongBuffer().put(words, 0, slotCells / 64);
+        } else {
+            for (int i = 0; i < slotCells / 8; i += 8)
+                record.putLong(offset + i, 0L);
+        }
+    }
+
+    // Copy a chunk of bits out of the record at the given offset.
+    private long[] getLongs(int offset) {
+        long[] words = new long[slotCells / 64];
+        record.position(offset);
+        record.asLongBuffer().get(words, 0, slotCells / 64);
+        return words;
+    }
+
+    // Copy a chunk of counts out of the record at the given offset.
+    private byte[] getBytes(int offset) {
+        byte[] bytes = new byte[slotCells];
+        record.get(offset, bytes, 0, slotCells);
+        return bytes;
+    }
+
+    // Write all of a buffer at the given file offset.
+    private static void write(FileChannel out, ByteBuffer buf, long offset) throws IOException {
+        while (buf.hasRemaining())
+            offset += out.write(buf, offset);
+    }
+
+    // Fill a buffer from the given file offset. Bytes past the end of the
+    // file are left as they were.
+    private static void read(FileChannel in, ByteBuffer buf, long offset) throws IOException {
+        while (buf.hasRemaining()) {
+            int n = in.read(buf, offset);
+            if (n < 0)
+                throw new IOException("saved game is cut short");
+            offset += n;
+        }
+    }
+}
@@ -0,0 +1,294 @@
+/*----------------------------------------------------------------
+ *  Author:   Kayleigh Crosby
+ *  Email:    kacros23@g.holycross.edu
+ *  Written:  10/17/2026
+ *
+ *  ScoreArchive reads and writes a binary file of scores, which
+ *  can be opened instantly no matter how many scores it holds.
+ *
+ *  Example: java ScoreArchive leaderboard.dat leaderboard.bin
+ *           # convert the text format to the binary one
+ *
+ *----------------------------------------------------------------*/
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A <i>ScoreArchive</i> is a read-only view of a binary score file. Opening
+ * one maps the file into memory and reads only its header, and each score is
+ * read from the mapping when it is asked for, so opening an archive takes the
+ * same time whether it holds ten scores or ten million, and looking at the top
+ * few never touches the rest.
+ *
+ * The file holds, in order:
+ *   - a header: a magic number, the format version, and the number of
+ *     difficulty levels, then for each level the index of its first record,
+ *     its number of records, and the offset and length of its name in the
+ *     string pool.
+ *   - the records, RECORD_BYTES each: score (int), name offset (int), name
+ *     length (short), difficulty level (byte), and one byte of padding. The
+ *     records of each level are together, sorted best (smallest) first, so
+ *     position i of a level is record first + i.
+ *   - the string pool: the UTF-8 bytes of every distinct name.
+ */
+public class ScoreArchive implements Closeable {
+
+    /**
+     * Bytes in each score record.
+     */
+    public static final int RECORD_BYTES = 12;
+
+    // "MSBA", for Minesweeper binary archive.
+    private static final int MAGIC = 0x4d534241;
+    private static final int VERSION = 1;
+
+    // Bytes in the fixed part of the header, and for each level.
+    private static final int HEADER_BYTES = 12;
+    private static final int LEVEL_BYTES = 16;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer map;
+    private final int poolStart;
+
+    // For each difficulty level (in file order): name, first record, and
+    // number of records.
+    private final Map<String, int[]> levels = new LinkedHashMap<>();
+
+    /**
+     * Open an archive file.
+     * @throws IOException if the file can't be read, or isn't an archive.
+     */
+    public ScoreArchive(String filename) throws IOException {
+        channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ);
+        long size = channel.size();
+        if (size < HEADER_BYTES || size > Integer.MAX_VALUE)
+            throw new IOException(filename + " is not a score archive");
+        map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION)
+            throw new IOException(filename + " is not a score archive");
+        int numLevels = map.getInt(8);
+        if (numLevels < 0 || HEADER_BYTES + (long)numLevels * LEVEL_BYTES > size)
+            throw new IOException(filename + " is cut short");
+        long numRecords = 0;
+        for (int k = 0; k < numLevels; k++) {
+            int count = map.getInt(HEADER_BYTES + k * LEVEL_BYTES + 4);
+            if (count < 0)
+                throw new IOException(filename + " is damaged");
+            numRecords += count;
+        }
+        long pool = HEADER_BYTES + (long)numLevels * LEVEL_BYTES + numRecords * RECORD_BYTES;
+        if (pool > size)
+            throw new IOException(filename + " is cut short");
+        poolStart = (int)pool;
+        // Every level's records and name have to be inside the file, so that
+        // getScore() and getName() never read past it.
+        for (int k = 0; k < numLevels; k++) {
+            int h = HEADER_BYTES + k * LEVEL_BYTES;
+            int first = map.getInt(h), count = map.getInt(h + 4);
+            int offset = map.getInt(h + 8), length = map.getInt(h + 12);
+            if (first < 0 || (long)first + count > numRecords
+                || offset < 0 || length < 0 || pool + offset + length > size)
+                throw new IOException(filename + " is damaged");
+            levels.put(string(offset, length), new int[] { first, count });
+        }
+    }
+
+    /**
+     * Get the difficulty levels in the archive.
+     */
+    public Iterable<String> getDifficulties() {
+        return levels.keySet();
+    }
+
+    /**
+     * Get the number of scores at a difficulty level.
+     */
+    public int getNumScores(String difficulty) {
+        int[] level = levels.get(difficulty);
+        return level == null ? 0 : level[1];
+    }
+
+    /**
+     * Get the score at position i of a difficulty level, where 0 is the best,
+     * or -1 if there is no such position.
+     */
+    public int getScore(String difficulty, int i) {
+        int r = record(difficulty, i);
+        return r < 0 ? -1 : map.getInt(r);
+    }
+
+    /**
+     * Get the name at position i of a difficulty level, where 0 is the best,
+     * or null if there is no such position.
+     */
+    public String getName(String difficulty, int i) {
+        int r = record(difficulty, i);
+        return r < 0 ? null : string(map.getInt(r + 4), map.getShort(r + 8) & 0xffff);
+    }
+
+    /**
+     * Get the number of scores at a difficulty level that are as good as the
+     * given score or better, found by binary search of the records.
+     */
+    public int rankOf(String difficulty, int score) {
+        int lo = 0, hi = getNumScores(difficulty);
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (getScore(difficulty, mid) <= score)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * Close the archive's file. The mapping itself is freed by the garbage
+     * collector.
+     */
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // Get the file offset of record i of a level, or -1.
+    private int record(String difficulty, int i) {
+        int[] level = levels.get(difficulty);
+        if (level == null || i < 0 || i >= level[1])
+            return -1;
+        return HEADER_BYTES + levels.size() * LEVEL_BYTES + (level[0] + i) * RECORD_BYTES;
+    }
+
+    // Decode a string from the pool.
+    private String string(int offset, int length) {
+        byte[] bytes = new byte[length];
+        map.get(poolStart + offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Write an archive file holding the given score tables. The file is
+     * written under a temporary name and then renamed, so readers never see
+     * half of it.
+     * @param filename the file to write.
+     * @param difficulties the name of each level.
+     * @param tables the scores for each level.
+     * @throws IOException if the file can't be written.
+     */
+    public static void write(String filename, String[] difficulties, ScoreTable[] tables)
+        throws IOException {
+        // Build the string pool first, so the records can point into it.
+        ByteArrayOutputStream pool = new ByteArrayOutputStream();
+        Map<String, int[]> pooled = new HashMap<>();
+        long numRecords = 0;
+        for (int k = 0; k < tables.length; k++) {
+            pool(difficulties[k], pool, pooled);
+            for (int i = 0; i < tables[k].size(); i++)
+                pool(tables[k].getName(i), pool, pooled);
+            numRecords += tables[k].size();
+        }
+        long size = HEADER_BYTES + (long)tables.length * LEVEL_BYTES
+            + numRecords * RECORD_BYTES + pool.size();
+        if (size > Integer.MAX_VALUE)
+            throw new IOException("too many scores for one archive");
+
+        Path path = Paths.get(filename);
+        Path temp = Paths.get(filename + ".tmp");
+        try (OutputStream file = Files.newOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(tables.length);
+            int first = 0;
+            for (int k = 0; k < tables.length; k++) {
+                int[] name = pooled.get(difficulties[k]);
+                out.writeInt(first);
+                out.writeInt(tables[k].size());
+                out.writeInt(name[0]);
+                out.writeInt(name[1]);
+                first += tables[k].size();
+            }
+            for (int k = 0; k < tables.length; k++) {
+                for (int i = 0; i < tables[k].size(); i++) {
+                    int[] name = pooled.get(tables[k].getName(i));
+                    out.writeInt(tables[k].getScore(i));
+                    out.writeInt(name[0]);
+                    out.writeShort(name[1]);
+                    out.writeByte(k);
+                    out.writeByte(0);
+                }
+            }
+            pool.writeTo(out);
+        }
+        Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // Add a string to the pool, once, remembering its offset and length.
+    private static void pool(String s, ByteArrayOutputStream pool, Map<String, int[]> pooled) {
+        if (pooled.containsKey(s))
+            return;
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xffff)
+            throw new IllegalArgumentException("name is too long: " + s.substring(0, 20) + "...");
+        pooled.put(s, new int[] { pool.size(), bytes.length });
+        pool.write(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Convert a score file in the text format of leaderboard.dat (one
+     * "difficulty score name" per line) to an archive holding every score.
+     * @throws IOException if either file can't be used.
+     */
+    public static void convert(String textFile, String archiveFile) throws IOException {
+        Map<String, ScoreTable> tables = new LinkedHashMap<>();
+        try (BufferedReader in = Files.newBufferedReader(Paths.get(textFile), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] parts = line.split(" ", 3);
+                if (parts.length < 3)
+                    continue;
+                ScoreTable t = tables.get(parts[0]);
+                if (t == null) {
+                    t = new ScoreTable(ScoreTable.UNBOUNDED);
+                    tables.put(parts[0], t);
+                }
+                t.add(parts[2], Integer.parseInt(parts[1]));
+            }
+        }
+        write(archiveFile, tables.keySet().toArray(new String[0]),
+              tables.values().toArray(new ScoreTable[0]));
+    }
+
+    /**
+     * The main() program converts a text score file to an archive, then
+     * prints the best score of each level from the archive.
+     */
+    public static void main(String args[]) throws IOException {
+        if (args.length != 2) {
+            System.out.println("Usage: java ScoreArchive leaderboard.dat leaderboard.bin");
+            return;
+        }
+        convert(args[0], args[1]);
+        try (ScoreArchive archive = new ScoreArchive(args[1])) {
+            for (String level : archive.getDifficulties())
+                System.out.println(level + ": " + archive.getNumScores(level) + " scores, best "
+                                   + archive.getScore(level, 0) + " by " + archive.getName(level, 0));
+        }
+    }
+}
@@ -0,0 +1,346 @@
+/*----------------------------------------------------------------
+ *  Author:   Kayleigh Crosby
+ *  Email:    kacros23@g.holycross.edu
+ *  Written:  10/17/2026
+ *
+ *  ScoreBoard is a leaderboard that many game sessions can submit
+ *  scores to at the same time.
+ *----------------------------------------------------------------*/
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A <i>ScoreBoard</i> keeps the top scores for each difficulty level, like a
+ * Leaderboard, but is safe to use from many threads at once, e.g. several
+ * Game windows or headless sessions finishing together.
+ *
+ * Each difficulty level is a separate stripe with its own lock, so players at
+ * different levels never wait for each other. Within a level:
+ *   - reading the top scores takes no lock at all: each stripe publishes an
+ *     immutable Snapshot of its best TOP scores through a volatile field,
+ *     and replaces it whenever an insert changes them.
+ *   - a score too poor to make a full table is turned away without taking
+ *     the lock, by comparing it with the stripe's published cutoff.
+ *   - only scores that make the table lock the stripe, for a binary search
+ *     and a short array copy.
+ *
+ * If the board has a log file, scores are not written by the threads that
+ * insert them. They are queued, and a single background flusher writes all of
+ * the scores queued in the last FLUSH_DELAY_MILLIS with one write and one
+ * sync (see ScoreLog), so a burst of finishers costs one disk flush. After
+ * every COMPACT_AFTER scores written, the flusher also compacts the log down
+ * to the scores that are still on the board.
+ *
+ * Once the board is closed, it can still be read, but every insert is
+ * turned away, as if the score were too poor to make the board.
+ */
+public class ScoreBoard implements Closeable {
+
+    /**
+     * Number of best scores in each Snapshot.
+     */
+    public static final int TOP = Leaderboard.MAX_NUM_SCORES;
+
+    /**
+     * Longest time a score waits in the queue before it is written.
+     */
+    public static final long FLUSH_DELAY_MILLIS = 50;
+
+    /**
+     * Number of scores written to the log between compactions. A board that
+     * keeps every score (ScoreTable.UNBOUNDED) is never compacted, since
+     * there would be nothing to drop.
+     */
+    public static final int COMPACT_AFTER = 4096;
+
+    /**
+     * An unchanging copy of the best scores at one difficulty level.
+     */
+    public static final class Snapshot {
+
+        private final int[] scores;
+        private final String[] names;
+
+        private Snapshot(int[] scores, String[] names) {
+            this.scores = scores;
+            this.names = names;
+        }
+
+        /**
+         * Get the number of scores in the snapshot, at most TOP.
+         */
+        public int size() {
+            return scores.length;
+        }
+
+        /**
+         * Get the score at position i, where 0 is the best, or -1 if there is
+         * no such position.
+         */
+        public int getScore(int i) {
+            return i >= 0 && i < scores.length ? scores[i] : -1;
+        }
+
+        /**
+         * Get the name at position i, where 0 is the best, or null if there is
+         * no such position.
+         */
+        public String getName(int i) {
+            return i >= 0 && i < names.length ? names[i] : null;
+        }
+    }
+
+    private static final Snapshot EMPTY = new Snapshot(new int[0], new String[0]);
+
+    // The scores for one difficulty level. The table is only touched while
+    // holding the stripe's lock. The snapshot and cutoff are written under
+    // the lock but read without it.
+    private static final class Stripe {
+        final ScoreTable table;
+        volatile Snapshot top = EMPTY;
+        // Scores at least this large can't make the table, Long.MAX_VALUE
+        // until it is full.
+        volatile long cutoff = Long.MAX_VALUE;
+
+        Stripe(int capacity) {
+            table = new ScoreTable(capacity);
+        }
+
+        // Publish the top scores and cutoff, after the table changed.
+        void publish(boolean topChanged) {
+            if (topChanged) {
+                int n = Math.min(TOP, table.size());
+                int[] scores = new int[n];
+                String[] names = new String[n];
+                for (int i = 0; i < n; i++) {
+                    scores[i] = table.getScore(i);
+                    names[i] = table.getName(i);
+                }
+                top = new Snapshot(scores, names);
+            }
+            if (table.size() == table.getCapacity())
+                cutoff = table.getScore(table.size() - 1);
+        }
+    }
+
+    // A score waiting to be written to the log.
+    private static final class Pending {
+        final String difficulty;
+        final String name;
+        final int score;
+
+        Pending(String difficulty, String name, int score) {
+            this.difficulty = difficulty;
+            this.name = name;
+            this.score = score;
+        }
+    }
+
+    private final int capacity;
+    private final ConcurrentHashMap<String, Stripe> stripes = new ConcurrentHashMap<>();
+
+    // The log, or null if scores are only kept in memory, the scores waiting
+    // to be written to it, and whether a flush is already scheduled.
+    private final ScoreLog log;
+    private final ConcurrentLinkedQueue<Pending> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private final ScheduledExecutorService flusher;
+
+    // Scores written to the log since it was last compacted. Only touched by
+    // flush(), while holding the pending lock.
+    private int writtenSinceCompaction = 0;
+
+    // Whether close() was called. Inserts check this again, and queue their
+    // score, while holding their stripe's lock, and close() takes each
+    // stripe's lock after setting it, so no score is queued after the last
+    // flush.
+    private volatile boolean closed = false;
+
+    /**
+     * Initialize a board that keeps capacity scores per level (or every
+     * score, if capacity is ScoreTable.UNBOUNDED) in memory only.
+     */
+    public ScoreBoard(int capacity) {
+        this.capacity = capacity;
+        this.log = null;
+        this.flusher = null;
+    }
+
+    /**
+     * Initialize a board that keeps capacity scores per level, loading them
+     * from a log file (see ScoreLog) and saving every new one to it.
+     * @throws IOException if the log can't be opened or read.
+     */
+    public ScoreBoard(int capacity, String logFile) throws IOException {
+        this.capacity = capacity;
+        this.log = new ScoreLog(logFile);
+        log.replay((difficulty, name, score) -> stripe(difficulty).table.add(name, score));
+        for (Stripe s : stripes.values())
+            s.publish(true);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ScoreBoard flusher");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Insert a name and score, if it is good enough to make the board. This
+     * can be called from any thread. After close(), nothing is inserted.
+     * @return the position of the new score, where 0 is the best, or -1 if
+     * it didn't make the board or the board is closed.
+     */
+    public int insert(String difficulty, String name, int score) {
+        if (score < 0 || name == null || name.length() == 0 || closed)
+            return -1;
+        Stripe s = stripe(difficulty);
+        if (score >= s.cutoff)
+            return -1;
+        synchronized (s) {
+            if (closed)
+                return -1;
+            int rank = s.table.insert(name, score);
+            if (rank < 0)
+                return -1;
+            s.publish(rank < TOP);
+            if (log != null) {
+                pending.add(new Pending(difficulty, name, score));
+                if (flushScheduled.compareAndSet(false, true))
+                    flusher.schedule(this::flushQuietly, FLUSH_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+            }
+            return rank;
+        }
+    }
+
+    /**
+     * Get the best scores at a difficulty level, without waiting for any
+     * insert in progress.
+     */
+    public Snapshot getTop(String difficulty) {
+        Stripe s = stripes.get(difficulty);
+        return s == null ? EMPTY : s.top;
+    }
+
+    /**
+     * Get the number of scores kept at a difficulty level.
+     */
+    public int getNumScores(String difficulty) {
+        Stripe s = stripes.get(difficulty);
+        if (s == null)
+            return 0;
+        synchronized (s) {
+            return s.table.size();
+        }
+    }
+
+    /**
+     * Write every queued score to the log and force it to the disk, now.
+     * @throws IOException if the log can't be written.
+     */
+    public void flush() throws IOException {
+        if (log == null)
+            return;
+        // One flush at a time, so scores reach the log in the order queued.
+        synchronized (pending) {
+            flushScheduled.set(false);
+            int n = 0;
+            String[] difficulties = new String[64];
+            String[] names = new String[64];
+            int[] scores = new int[64];
+            Pending p;
+            while ((p = pending.poll()) != null) {
+                if (n == scores.length) {
+                    difficulties = Arrays.copyOf(difficulties, 2 * n);
+                    names = Arrays.copyOf(names, 2 * n);
+                    scores = Arrays.copyOf(scores, 2 * n);
+                }
+                difficulties[n] = p.difficulty;
+                names[n] = p.name;
+                scores[n] = p.score;
+                n++;
+            }
+            if (n == 0)
+                return;
+            log.appendAll(difficulties, names, scores, n);
+            log.sync();
+            writtenSinceCompaction += n;
+            if (writtenSinceCompaction >= COMPACT_AFTER && capacity != ScoreTable.UNBOUNDED) {
+                compactLog();
+                writtenSinceCompaction = 0;
+            }
+        }
+    }
+
+    /**
+     * Stop taking new scores, flush any queued scores, then close the log.
+     * Calling this again does nothing.
+     * @throws IOException if the log can't be written.
+     */
+    public synchronized void close() throws IOException {
+        if (closed)
+            return;
+        closed = true;
+        // Wait for every insert that saw the board open to queue its score.
+        // A stripe made after this can't take any scores.
+        for (Stripe s : stripes.values()) {
+            synchronized (s) {
+                // Nothing to do but take the lock.
+            }
+        }
+        if (log == null)
+            return;
+        flusher.shutdown();
+        flush();
+        log.close();
+    }
+
+    // Start replacing the log with just the scores still on the board. They
+    // are read back from the log itself, rather than taken from the stripes,
+    // so a score that is on a stripe but still queued isn't written twice.
+    // This is only called by flush(), so nothing is appended meanwhile.
+    private void compactLog() throws IOException {
+        Map<String, ScoreTable> kept = new HashMap<>();
+        log.replay((difficulty, name, score) ->
+                   kept.computeIfAbsent(difficulty, d -> new ScoreTable(capacity)).add(name, score));
+        int n = 0;
+        for (ScoreTable t : kept.values())
+            n += t.size();
+        String[] difficulties = new String[n];
+        String[] names = new String[n];
+        int[] scores = new int[n];
+        int k = 0;
+        for (Map.Entry<String, ScoreTable> e : kept.entrySet()) {
+            ScoreTable t = e.getValue();
+            for (int i = 0; i < t.size(); i++, k++) {
+                difficulties[k] = e.getKey();
+                names[k] = t.getName(i);
+                scores[k] = t.getScore(i);
+            }
+        }
+        log.compact(difficulties, names, scores);
+    }
+
+    // Flush on the background thread, where there is no one to throw to.
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException e) {
+            System.out.println("Can't save scores: " + e.getMessage());
+        }
+    }
+
+    // Get the stripe for a difficulty level, making it if needed.
+    private Stripe stripe(String difficulty) {
+        return stripes.computeIfAbsent(difficulty, d -> new Stripe(capacity));
+    }
+}
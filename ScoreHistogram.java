@@ -0,0 +1,171 @@
+/*----------------------------------------------------------------
+ *  Author:   Kayleigh Crosby
+ *  Email:    kacros23@g.holycross.edu
+ *  Written:  10/17/2026
+ *
+ *  ScoreHistogram counts every score ever recorded at one
+ *  difficulty level, for rank and percentile queries.
+ *----------------------------------------------------------------*/
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A <i>ScoreHistogram</i> counts how many times each score (a completion
+ * time in seconds) has been recorded, and answers questions like "how many
+ * players did better than this?" over all of them, not just the top few. The
+ * counts are kept in a Fenwick tree (binary indexed tree) with one bucket per
+ * second, so recording a score and every query take O(log MAX_SCORE) steps,
+ * no matter how many millions of scores have been recorded, and nothing is
+ * ever sorted. Scores above MAX_SCORE are counted as MAX_SCORE.
+ *
+ * Like a ScoreTable, a histogram is not safe to use from several threads at
+ * once.
+ */
+public class ScoreHistogram {
+
+    /**
+     * Largest score with its own bucket, a little over 36 hours. Larger
+     * scores are counted in this bucket.
+     */
+    public static final int MAX_SCORE = (1 << 17) - 1;
+
+    // Number of buckets, a power of two.
+    private static final int SIZE = MAX_SCORE + 1;
+
+    // Fenwick tree over the buckets, 1-based: tree[i] holds the count of
+    // buckets (i - lowbit(i), i], where bucket b is stored at i = b + 1.
+    private final long[] tree = new long[SIZE + 1];
+    private long total = 0;
+
+    /**
+     * Record a score.
+     * @throws IllegalArgumentException if the score is negative.
+     */
+    public void add(int score) {
+        add(score, 1);
+    }
+
+    /**
+     * Record count copies of a score.
+     * @throws IllegalArgumentException if the score or count is negative.
+     */
+    public void add(int score, long count) {
+        if (score < 0 || count < 0)
+            throw new IllegalArgumentException("bad score " + score + " x " + count);
+        for (int i = bucket(score) + 1; i <= SIZE; i += i & -i)
+            tree[i] += count;
+        total += count;
+    }
+
+    /**
+     * Get the number of scores recorded.
+     */
+    public long size() {
+        return total;
+    }
+
+    /**
+     * Get the number of scores recorded that are as good as the given score
+     * or better, i.e. no larger.
+     */
+    public long countAtMost(int score) {
+        if (score < 0)
+            return 0;
+        long n = 0;
+        for (int i = bucket(score) + 1; i > 0; i -= i & -i)
+            n += tree[i];
+        return n;
+    }
+
+    /**
+     * Get the rank a score would have among all scores recorded, where 1 is
+     * the best. Players with equal scores share a rank.
+     */
+    public long rankOf(int score) {
+        return countAtMost(score - 1) + 1;
+    }
+
+    /**
+     * Get the percentage of recorded scores that the given score beats, i.e.
+     * that are strictly worse (larger), from 0 to 100. With no scores
+     * recorded, this is 100.
+     */
+    public double percentBeaten(int score) {
+        if (total == 0)
+            return 100;
+        return 100.0 * (total - countAtMost(score)) / total;
+    }
+
+    /**
+     * Get the k-th best score recorded, counting from 1, or -1 if fewer than k
+     * scores have been recorded. This walks down the Fenwick tree, in
+     * O(log MAX_SCORE) steps.
+     */
+    public int getScoreAtRank(long k) {
+        if (k < 1 || k > total)
+            return -1;
+        int i = 0;
+        for (int step = SIZE; step > 0; step >>= 1) {
+            if (i + step <= SIZE && tree[i + step] < k) {
+                i += step;
+                k -= tree[i];
+            }
+        }
+        return i; // bucket i is at tree index i + 1
+    }
+
+    /**
+     * Write the counts, as the number of non-empty buckets followed by each
+     * one's score and count.
+     * @throws IOException if the output can't be written.
+     */
+    public void write(DataOutput out) throws IOException {
+        long[] counts = counts();
+        int n = 0;
+        for (int i = 1; i <= SIZE; i++)
+            if (counts[i] != 0)
+                n++;
+        out.writeInt(n);
+        for (int i = 1; i <= SIZE; i++) {
+            if (counts[i] != 0) {
+                out.writeInt(i - 1);
+                out.writeLong(counts[i]);
+            }
+        }
+    }
+
+    /**
+     * Add counts written by write().
+     * @throws IOException if the input can't be read.
+     */
+    public void read(DataInput in) throws IOException {
+        int n = in.readInt();
+        for (int k = 0; k < n; k++) {
+            int score = in.readInt();
+            long count = in.readLong();
+            if (score < 0 || count < 0)
+                throw new IOException("bad histogram entry " + score + " x " + count);
+            add(score, count);
+        }
+    }
+
+    // The count of each bucket, at the same 1-based indexes as the tree.
+    // This undoes the tree's sums in one pass from the top: each node's
+    // parent is the node that its own count was added into.
+    private long[] counts() {
+        long[] counts = tree.clone();
+        for (int i = SIZE; i > 0; i--) {
+            int parent = i + (i & -i);
+            if (parent <= SIZE)
+                counts[parent] -= tree[i];
+        }
+        return counts;
+    }
+
+    // The bucket a score is counted in.
+    private static int bucket(int score) {
+        return Math.min(score, MAX_SCORE);
+    }
+}
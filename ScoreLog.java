@@ -0,0 +1,339 @@
+/*----------------------------------------------------------------
+ *  Author:   Kayleigh Crosby
+ *  Email:    kacros23@g.holycross.edu
+ *  Written:  10/17/2026
+ *
+ *  ScoreLog stores leaderboard scores in an append-only file that
+ *  survives crashes.
+ *----------------------------------------------------------------*/
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+
+/**
+ * A <i>ScoreLog</i> keeps leaderboard scores in a file that is only ever
+ * appended to. Each score is written as one frame: its length, a CRC32
+ * checksum, then the difficulty, score, and name. Saving a score is a single
+ * small write at the end of the file, instead of rewriting everything.
+ *
+ * If the program crashes in the middle of a write, the last frame can be cut
+ * short or garbled. When the log is opened, every frame is checked, and any
+ * bad frame at the end (and everything after it) is cut off, so the log
+ * always holds exactly the scores that were completely written.
+ *
+ * Since the log keeps every score ever appended, it is compacted from time to
+ * time: the scores still worth keeping are written to a temporary file, which
+ * is flushed to disk and then renamed over the log in one atomic step. A crash
+ * at any point leaves either the old log or the new one, never a mix.
+ * Compaction happens on a background thread. Scores appended while it runs
+ * are copied into the new log before it replaces the old one.
+ */
+public class ScoreLog implements Closeable {
+
+    /**
+     * Receives the scores read back from a log.
+     */
+    public interface Visitor {
+        void score(String difficulty, String name, int score);
+    }
+
+    // Frame header: payload length and checksum.
+    private static final int HEADER_BYTES = 8;
+
+    // Frames longer than this can only be garbage.
+    private static final int MAX_FRAME_BYTES = 1 << 16;
+
+    private final Path path;
+    private final Path tempPath;
+
+    // Open for appending to the log.
+    private FileChannel channel;
+
+    // Background thread for compaction, made when first needed.
+    private ExecutorService compactor;
+
+    // The compaction in progress, or null, and the frames appended since it
+    // took its snapshot.
+    private Future<?> compaction;
+    private List<ByteBuffer> appendedDuringCompaction;
+
+    /**
+     * Open a log, creating it if it doesn't exist, and cut off any frame at
+     * the end that was only partly written.
+     * @throws IOException if the file can't be opened.
+     */
+    public ScoreLog(String filename) throws IOException {
+        this.path = Paths.get(filename);
+        this.tempPath = Paths.get(filename + ".tmp");
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                                        StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long good = scan(null);
+        if (good < channel.size()) {
+            System.out.println("Discarding " + (channel.size() - good)
+                               + " damaged bytes at the end of " + filename);
+            channel.truncate(good);
+            channel.force(false);
+        }
+        channel.position(good);
+    }
+
+    /**
+     * Make a log holding the given scores, replacing any log with the same
+     * name. The scores are written to a temporary file, which is flushed to
+     * disk and then renamed over the log, so after a crash the log either
+     * holds all of them or is as it was before.
+     * @throws IOException if the file can't be written.
+     */
+    public static void create(String filename, String[] difficulties, String[] names, int[] scores)
+        throws IOException {
+        Path path = Paths.get(filename);
+        Path temp = Paths.get(filename + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                                                StandardOpenOption.WRITE,
+                                                StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFrames(out, difficulties, names, scores);
+            out.force(false);
+        }
+        Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Returns true if a log file with the given name exists.
+     */
+    public static boolean exists(String filename) {
+        return Files.exists(Paths.get(filename));
+    }
+
+    /**
+     * Read every score in the log, oldest first.
+     * @throws IOException if the file can't be read.
+     */
+    public synchronized void replay(Visitor visitor) throws IOException {
+        scan(visitor);
+    }
+
+    /**
+     * Append a score to the end of the log. The score is safe from a crash
+     * of the program as soon as this returns, and from a crash of the whole
+     * machine after the next sync().
+     * @throws IOException if the score can't be written.
+     */
+    public synchronized void append(String difficulty, String name, int score) throws IOException {
+        ByteBuffer frame = frame(difficulty, name, score);
+        write(channel, frame.duplicate());
+        if (appendedDuringCompaction != null)
+            appendedDuringCompaction.add(frame);
+    }
+
+    /**
+     * Append several scores to the end of the log with a single write.
+     * @param n the number of scores, from the start of each array.
+     * @throws IOException if the scores can't be written.
+     */
+    public synchronized void appendAll(String[] difficulties, String[] names, int[] scores, int n)
+        throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * n);
+        for (int i = 0; i < n; i++) {
+            ByteBuffer frame = frame(difficulties[i], names[i], scores[i]);
+            bytes.write(frame.array(), 0, frame.limit());
+            if (appendedDuringCompaction != null)
+                appendedDuringCompaction.add(frame);
+        }
+        write(channel, ByteBuffer.wrap(bytes.toByteArray()));
+    }
+
+    /**
+     * Force every appended score out to the disk.
+     * @throws IOException if the disk can't be written.
+     */
+    public synchronized void sync() throws IOException {
+        channel.force(false);
+    }
+
+    /**
+     * Replace the log with one holding only the given scores, on a
+     * background thread. Scores appended after this is called are kept too.
+     * If a compaction is already running, it is left to finish, and this
+     * does nothing.
+     * @param difficulties the difficulty of each score to keep.
+     * @param names the name for each score.
+     * @param scores the scores.
+     * @return a future that completes when the new log is in place.
+     */
+    public synchronized Future<?> compact(String[] difficulties, String[] names, int[] scores) {
+        if (compaction != null && !compaction.isDone())
+            return compaction;
+        if (compactor == null) {
+            compactor = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "ScoreLog compactor");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        appendedDuringCompaction = new ArrayList<>();
+        compaction = compactor.submit(() -> {
+            try {
+                writeCompacted(difficulties, names, scores);
+            } finally {
+                synchronized (this) {
+                    appendedDuringCompaction = null;
+                }
+            }
+            return null;
+        });
+        return compaction;
+    }
+
+    /**
+     * Wait for any compaction to finish, then close the log.
+     * @throws IOException if the file can't be closed.
+     */
+    public void close() throws IOException {
+        Future<?> c;
+        synchronized (this) {
+            c = compaction != null ? compaction : CompletableFuture.completedFuture(null);
+        }
+        try {
+            c.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            System.out.println("Can't compact " + path + ": " + e.getMessage());
+        }
+        synchronized (this) {
+            if (compactor != null)
+                compactor.shutdown();
+            channel.close();
+        }
+    }
+
+    // Write the snapshot to the temporary file, then, while no one can
+    // append, add the frames appended since the snapshot and rename the
+    // temporary file over the log.
+    private void writeCompacted(String[] difficulties, String[] names, int[] scores)
+        throws IOException {
+        try (FileChannel out = FileChannel.open(tempPath, StandardOpenOption.CREATE,
+                                                StandardOpenOption.WRITE,
+                                                StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFrames(out, difficulties, names, scores);
+
+            synchronized (this) {
+                for (ByteBuffer frame : appendedDuringCompaction)
+                    write(out, frame.duplicate());
+                out.force(false);
+                Files.move(tempPath, path, StandardCopyOption.ATOMIC_MOVE,
+                           StandardCopyOption.REPLACE_EXISTING);
+                FileChannel old = channel;
+                channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                channel.position(channel.size());
+                old.close();
+            }
+        }
+    }
+
+    // Write scores as frames, a few at a time.
+    private static void writeFrames(FileChannel out, String[] difficulties, String[] names,
+                                    int[] scores) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        for (int i = 0; i < scores.length; i++) {
+            ByteBuffer frame = frame(difficulties[i], names[i], scores[i]);
+            bytes.write(frame.array(), 0, frame.limit());
+            if (bytes.size() >= MAX_FRAME_BYTES) {
+                write(out, ByteBuffer.wrap(bytes.toByteArray()));
+                bytes.reset();
+            }
+        }
+        write(out, ByteBuffer.wrap(bytes.toByteArray()));
+    }
+
+    // Read the frames from the start of the log, giving each score to the
+    // visitor if there is one, and return the offset just after the last
+    // good frame.
+    private long scan(Visitor visitor) throws IOException {
+        long good = 0;
+        long size = channel.size();
+        InputStream raw = Channels.newInputStream(channel.position(0));
+        DataInputStream in = new DataInputStream(new BufferedInputStream(raw));
+        CRC32 crc = new CRC32();
+        byte[] payload = new byte[256];
+        while (good + HEADER_BYTES <= size) {
+            int length = in.readInt();
+            int checksum = in.readInt();
+            if (length <= 0 || length > MAX_FRAME_BYTES || good + HEADER_BYTES + length > size)
+                break;
+            if (payload.length < length)
+                payload = new byte[length];
+            in.readFully(payload, 0, length);
+            crc.reset();
+            crc.update(payload, 0, length);
+            if ((int)crc.getValue() != checksum)
+                break;
+            if (visitor != null) {
+                DataInputStream p = new DataInputStream(new ByteArrayInputStream(payload, 0, length));
+                try {
+                    String difficulty = p.readUTF();
+                    int score = p.readInt();
+                    String name = p.readUTF();
+                    visitor.score(difficulty, name, score);
+                } catch (EOFException e) {
+                    break;
+                }
+            }
+            good += HEADER_BYTES + length;
+        }
+        channel.position(size);
+        return good;
+    }
+
+    // Encode one score as a frame.
+    private static ByteBuffer frame(String difficulty, String name, int score) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0); // length, filled in below
+            out.writeInt(0); // checksum, filled in below
+            out.writeUTF(difficulty);
+            out.writeInt(score);
+            out.writeUTF(name);
+            out.flush();
+            ByteBuffer frame = ByteBuffer.wrap(bytes.toByteArray());
+            int length = frame.limit() - HEADER_BYTES;
+            CRC32 crc = new CRC32();
+            crc.update(frame.array(), HEADER_BYTES, length);
+            frame.putInt(0, length);
+            frame.putInt(4, (int)crc.getValue());
+            return frame;
+        } catch (IOException e) {
+            // Can't happen when writing to memory.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Write all of a buffer.
+    private static void write(FileChannel out, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining())
+            out.write(buf);
+    }
+}
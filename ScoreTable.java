@@ -0,0 +1,186 @@
+/*----------------------------------------------------------------
+ *  Author:   Kayleigh Crosby
+ *  Email:    kacros23@g.holycross.edu
+ *  Written:  10/17/2026
+ *
+ *  ScoreTable keeps a sorted list of names and scores for one
+ *  difficulty level.
+ *----------------------------------------------------------------*/
+
+import java.util.Arrays;
+
+/**
+ * A <i>ScoreTable</i> holds names and scores sorted from best (smallest)
+ * to worst. Scores are kept in an int array, and names in a parallel array of
+ * interned Strings, so a player with many scores only costs one String. A
+ * score is inserted at the place found by binary search. Equal scores stay in
+ * the order they were inserted, so the first player to get a score ranks
+ * ahead of later ones.
+ *
+ * A bounded table keeps only its best few scores, dropping the worst when
+ * it is full. An unbounded table (an archive) keeps every score. To fill a
+ * large archive quickly, add() appends scores without sorting, and the table
+ * sorts them all at once the next time it is read.
+ */
+public class ScoreTable {
+
+    /**
+     * Capacity of a table with no limit on its number of scores.
+     */
+    public static final int UNBOUNDED = Integer.MAX_VALUE;
+
+    // Most scores to keep.
+    private final int capacity;
+
+    // Scores and names, best first, in positions [0, size). Positions from
+    // numSorted on were added with add() and haven't been sorted yet.
+    private int[] scores;
+    private String[] names;
+    private int size = 0;
+    private int numSorted = 0;
+
+    /**
+     * Initialize an empty table that keeps at most capacity scores, or every
+     * score if capacity is UNBOUNDED.
+     */
+    public ScoreTable(int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("capacity must be at least 1");
+        this.capacity = capacity;
+        int initial = Math.min(capacity, 16);
+        scores = new int[initial];
+        names = new String[initial];
+    }
+
+    /**
+     * Get the most scores this table keeps, or UNBOUNDED.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Get the number of scores in the table.
+     */
+    public int size() {
+        sort();
+        return size;
+    }
+
+    /**
+     * Get the score at position i, where 0 is the best, or -1 if there is no
+     * such position.
+     */
+    public int getScore(int i) {
+        sort();
+        return i >= 0 && i < size ? scores[i] : -1;
+    }
+
+    /**
+     * Get the name at position i, where 0 is the best, or null if there is no
+     * such position.
+     */
+    public String getName(int i) {
+        sort();
+        return i >= 0 && i < size ? names[i] : null;
+    }
+
+    /**
+     * Get the position a new score would be inserted at, i.e. the number of
+     * scores in the table that are as good or better.
+     */
+    public int rankOf(int score) {
+        sort();
+        // Find the first score worse than this one.
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (scores[mid] <= score)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * Insert a name and score, if it is good enough to make the table.
+     * @return the position of the new score, where 0 is the best, or -1 if
+     * the table is full and every score in it is as good or better.
+     */
+    public int insert(String name, int score) {
+        int rank = rankOf(score);
+        if (rank >= capacity)
+            return -1;
+        if (size == capacity) {
+            size--; // drop the worst score
+        } else {
+            grow(size + 1);
+        }
+        System.arraycopy(scores, rank, scores, rank + 1, size - rank);
+        System.arraycopy(names, rank, names, rank + 1, size - rank);
+        scores[rank] = score;
+        names[rank] = name.intern();
+        size++;
+        numSorted = size;
+        return rank;
+    }
+
+    /**
+     * Add a name and score without finding its position yet. This is much
+     * faster than insert() when adding many scores at once, e.g. while
+     * loading a file. The table is sorted (and trimmed to its capacity) the
+     * next time it is read.
+     */
+    public void add(String name, int score) {
+        if (size == Integer.MAX_VALUE - 8)
+            throw new IllegalStateException("score table is full");
+        grow(size + 1);
+        scores[size] = score;
+        names[size] = name.intern();
+        size++;
+    }
+
+    /**
+     * Remove every score.
+     */
+    public void clear() {
+        Arrays.fill(names, 0, size, null);
+        size = 0;
+        numSorted = 0;
+    }
+
+    // Make room for at least n scores.
+    private void grow(int n) {
+        if (n <= scores.length)
+            return;
+        int length = (int)Math.min(Integer.MAX_VALUE - 8, Math.max(n, 2L * scores.length));
+        scores = Arrays.copyOf(scores, length);
+        names = Arrays.copyOf(names, length);
+    }
+
+    // Sort any scores added with add(), keeping equal scores in the order
+    // they were added, then drop any beyond the capacity. Each score and its
+    // position are packed into one long, so a single primitive sort orders
+    // both arrays.
+    private void sort() {
+        if (numSorted == size)
+            return;
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++)
+            keys[i] = ((long)scores[i] << 32) | i;
+        Arrays.sort(keys);
+        int n = Math.min(size, capacity);
+        int[] sortedScores = new int[Math.max(n, Math.min(capacity, 16))];
+        String[] sortedNames = new String[sortedScores.length];
+        for (int k = 0; k < n; k++) {
+            int i = (int)keys[k];
+            sortedScores[k] = scores[i];
+            sortedNames[k] = names[i];
+        }
+        scores = sortedScores;
+        names = sortedNames;
+        size = n;
+        numSorted = n;
+    }
+}
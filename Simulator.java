@@ -0,0 +1,295 @@
+/*----------------------------------------------------------------
+ *  Author:   Kayleigh Crosby
+ *  Email:    kacros23@g.holycross.edu
+ *  Written:  10/17/2026
+ *
+ *  Simulator plays many games of minesweeper with a Bot, without
+ *  any GUI, and reports how fast and how well it played.
+ *
+ *  Example: java Simulator 100000 # 100,000 games at each difficulty
+ *
+ *  Example: java Simulator 100000 hard 8 1234 # hard only, on 8 threads,
+ *           seeds 1234, 1235, ...
+ *
+ *  Example: java Simulator 1000 hard 8 1234 40 60 # on a 40x60 board
+ *
+ *  Example: java Simulator 100000 hard -o # first clicks open a region
+ *
+ *----------------------------------------------------------------*/
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * A <i>Simulator</i> plays a batch of games headlessly, spread across a pool
+ * of worker threads. Game number i of a batch uses seed firstSeed + i, and
+ * the mines are deployed, and moved away from the first click, exactly as
+ * "java Minesweeper seed" would do it, so any game can be played again on
+ * its own, by the bot or by a person.
+ *
+ * Each worker has its own Bot and plays every numThreads-th game, keeping its
+ * own Results. Nothing mutable is shared between workers: each game gets its
+ * own Board and random number generators, and the per-worker results are only
+ * added together once all of the workers are done. The results (and so the
+ * win rate) of a batch are the same no matter how many threads play it.
+ */
+public class Simulator {
+
+    // Options that may appear anywhere in the arguments.
+    private static final List<String> FLAGS = List.of("-o", "-u");
+
+    /**
+     * Totals for a batch of games.
+     */
+    public static class Results {
+
+        private long numGames = 0;
+        private long numWins = 0;
+        private long numMoves = 0;
+        private long numGuesses = 0;
+        private long wallNanos = 0;
+
+        /**
+         * Get the number of games played.
+         */
+        public long getNumGames() {
+            return numGames;
+        }
+
+        /**
+         * Get the number of games won.
+         */
+        public long getNumWins() {
+            return numWins;
+        }
+
+        /**
+         * Get the total number of moves (cells revealed by the bot) in all
+         * games.
+         */
+        public long getNumMoves() {
+            return numMoves;
+        }
+
+        /**
+         * Get the total number of moves that were guesses, in all games.
+         */
+        public long getNumGuesses() {
+            return numGuesses;
+        }
+
+        /**
+         * Get the fraction of games that were won.
+         */
+        public double getWinRate() {
+            return numGames == 0 ? 0 : (double)numWins / numGames;
+        }
+
+        /**
+         * Get the number of games played per second, from start to finish of
+         * the batch.
+         */
+        public double getGamesPerSecond() {
+            return wallNanos == 0 ? 0 : numGames * 1e9 / wallNanos;
+        }
+
+        /**
+         * Get the average number of moves per game.
+         */
+        public double getMovesPerGame() {
+            return numGames == 0 ? 0 : (double)numMoves / numGames;
+        }
+
+        /**
+         * Get the average number of guesses per game.
+         */
+        public double getGuessesPerGame() {
+            return numGames == 0 ? 0 : (double)numGuesses / numGames;
+        }
+
+        // Add one game to the totals.
+        private void add(boolean won, int moves, int guesses) {
+            numGames++;
+            if (won)
+                numWins++;
+            numMoves += moves;
+            numGuesses += guesses;
+        }
+
+        // Add another worker's totals to these.
+        private void add(Results other) {
+            numGames += other.numGames;
+            numWins += other.numWins;
+            numMoves += other.numMoves;
+            numGuesses += other.numGuesses;
+        }
+
+        /**
+         * Summarize the results in one line.
+         */
+        public String toString() {
+            return String.format("%d games, %.0f games/sec, %.2f%% won, "
+                                 + "%.1f moves/game, %.2f guesses/game",
+                                 numGames, getGamesPerSecond(), 100 * getWinRate(),
+                                 getMovesPerGame(), getGuessesPerGame());
+        }
+    }
+
+    // Board size and number of mines for every game.
+    private final int numRows;
+    private final int numCols;
+    private final int numMines;
+
+    // Makes a new bot for each worker.
+    private final Supplier<Bot> bots;
+
+    // How the first click of each game is kept safe.
+    private int firstClickSafe = Board.SAFE_CELL;
+
+    /**
+     * Initialize a simulator.
+     * @param numRows number of rows in each board.
+     * @param numCols number of columns in each board.
+     * @param numMines number of mines in each board.
+     * @param bots makes a new bot for each worker thread, e.g. SolverBot::new.
+     */
+    public Simulator(int numRows, int numCols, int numMines, Supplier<Bot> bots) {
+        if (numMines < 0 || numMines > (long)numRows * numCols)
+            throw new IllegalArgumentException("can't deploy " + numMines + " mines on a "
+                                               + numRows + "x" + numCols + " board");
+        this.numRows = numRows;
+        this.numCols = numCols;
+        this.numMines = numMines;
+        this.bots = bots;
+    }
+
+    /**
+     * Play a batch of games, with seeds firstSeed, firstSeed + 1, and so on,
+     * on the given number of worker threads.
+     * @return the totals for the batch.
+     * @throws InterruptedException if interrupted while waiting for workers.
+     */
+    public Results play(long firstSeed, long numGames, int numThreads)
+        throws InterruptedException {
+        if (numThreads < 1)
+            throw new IllegalArgumentException("need at least one thread");
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(numThreads);
+        try {
+            List<Future<Results>> workers = new ArrayList<>();
+            for (int w = 0; w < numThreads; w++) {
+                final int first = w;
+                workers.add(pool.submit(() -> {
+                    Bot bot = bots.get();
+                    Results results = new Results();
+                    for (long i = first; i < numGames; i += numThreads)
+                        playGame(bot, firstSeed + i, results);
+                    return results;
+                }));
+            }
+            Results total = new Results();
+            for (Future<Results> f : workers) {
+                try {
+                    total.add(f.get());
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("simulation failed", e.getCause());
+                }
+            }
+            total.wallNanos = System.nanoTime() - start;
+            return total;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Set how the first click of each game is kept safe, see
+     * Board.setFirstClickSafe(). The default is Board.SAFE_CELL, as in
+     * Minesweeper.
+     */
+    public void setFirstClickSafe(int mode) {
+        this.firstClickSafe = mode;
+    }
+
+    /**
+     * Play one game with the given seed, and return true if the bot won.
+     */
+    public boolean playGame(Bot bot, long seed) {
+        Results results = new Results();
+        playGame(bot, seed, results);
+        return results.numWins == 1;
+    }
+
+    // Play one game, adding it to the results.
+    private void playGame(Bot bot, long seed, Results results) {
+        Board board = new Board(numRows, numCols);
+        SplittableRandom rng = new SplittableRandom(seed);
+        board.deployMines(numMines, rng);
+        board.setFirstClickSafe(firstClickSafe, seed);
+        bot.newGame(board, numMines, rng.split());
+
+        int moves = 0;
+        while (!board.isGameOver()) {
+            long cell = bot.nextMove();
+            int r = CellQueue.rowOf(cell);
+            int c = CellQueue.colOf(cell);
+            if (!board.inBounds(r, c) || board.isRevealed(r, c))
+                throw new IllegalStateException("bot chose (" + r + ", " + c
+                                                + ") in game " + seed);
+            board.click(r, c, Board.LEFT);
+            moves++;
+        }
+        results.add(board.isWon(), moves, bot.getNumGuesses());
+    }
+
+    /**
+     * The main() program for the simulator. The optional arguments are, in
+     * order: the number of games to play (default 10,000), the difficulty
+     * ("easy", "medium", "hard", or "all", the default), the number of
+     * threads (default, one per processor), the first seed (default 1), and
+     * the number of rows and columns (default 20x30). As in Minesweeper, -o
+     * anywhere keeps the cells around the first click free of mines, and -u
+     * lets the first click hit one.
+     */
+    public static void main(String args[]) throws InterruptedException {
+        List<String> options = Arrays.asList(args);
+        int firstClickSafe = options.contains("-u") ? Board.SAFE_NONE
+            : options.contains("-o") ? Board.SAFE_AREA : Board.SAFE_CELL;
+        args = Arrays.stream(args).filter(a -> !FLAGS.contains(a)).toArray(String[]::new);
+
+        long games = args.length >= 1 ? Long.parseLong(args[0]) : 10000;
+        String difficulty = args.length >= 2 ? args[1] : "all";
+        int threads = args.length >= 3 ? Integer.parseInt(args[2])
+            : Runtime.getRuntime().availableProcessors();
+        long seed = args.length >= 4 ? Long.parseLong(args[3]) : 1;
+        int rows = Game.NUM_ROWS;
+        int cols = Game.NUM_COLS;
+        if (args.length >= 6) {
+            rows = Integer.parseInt(args[4]);
+            cols = Integer.parseInt(args[5]);
+        }
+
+        String[] difficulties = difficulty.equals("all")
+            ? new String[] { "easy", "medium", "hard" }
+            : new String[] { difficulty };
+        for (String d : difficulties) {
+            int mines = Minesweeper.minesFor(d, rows, cols);
+            if (mines < 0) {
+                System.out.println("Unknown difficulty: " + d);
+                return;
+            }
+            Simulator sim = new Simulator(rows, cols, mines, SolverBot::new);
+            sim.setFirstClickSafe(firstClickSafe);
+            Results results = sim.play(seed, games, threads);
+            System.out.printf("%-6s %dx%d, %d mines, %d threads: %s%n",
+                              d, rows, cols, mines, threads, results);
+        }
+    }
+}
@@ -0,0 +1,298 @@
+/*----------------------------------------------------------------
+ *  Author:   Kayleigh Crosby
+ *  Email:    kacros23@g.holycross.edu
+ *  Written:  10/17/2026
+ *
+ *  Solver finds cells that are certainly safe or certainly mines,
+ *  using only what the player can see on a Board.
+ *----------------------------------------------------------------*/
+
+/**
+ * A <i>Solver</i> deduces, from the visible state of a Board, which hidden
+ * cells must be safe and which must hold mines. It never looks at where the
+ * mines really are, and it ignores the player's flags, which might be wrong.
+ *
+ * Each revealed number is a constraint: its hidden neighbors hold exactly
+ * that many mines, minus the mines already known. The solver applies two
+ * kinds of deduction:
+ *   - single cell: if the remaining count is zero, every hidden neighbor is
+ *     safe, and if it equals the number of hidden neighbors, they are all
+ *     mines.
+ *   - subset: if the hidden neighbors of one number are a subset of those of
+ *     another nearby number, the difference holds exactly the difference of
+ *     their counts, which may make all of the difference safe or all mines.
+ *
+ * The solver listens to the board, and only re-examines the numbers around
+ * cells that changed, using a worklist of cells instead of scanning the grid.
+ * Call solve() after each move, then pollSafe() and pollMine() for the new
+ * deductions.
+ */
+public class Solver implements BoardListener {
+
+    // Neighborhoods are compared as bitmasks over a 7x7 window centered on
+    // the number being examined, with bit (dr+3)*7 + (dc+3) for offset
+    // (dr, dc). Every neighbor of a number within distance 2 fits in it.
+    private static final int WINDOW = 7;
+    private static final int HALF = 3;
+
+    // The board being solved.
+    private final Board board;
+    private final int numRows, numCols;
+
+    // Hidden cells known to hold a mine, or known to be safe.
+    private final CellBits knownMines;
+    private final CellBits knownSafe;
+
+    // Revealed numbers waiting to be examined, and which cells are queued.
+    private final CellQueue work = new CellQueue();
+    private final CellBits queued;
+
+    // Deductions not yet taken by pollSafe() and pollMine().
+    private final CellQueue newSafe = new CellQueue();
+    private final CellQueue newMines = new CellQueue();
+
+    /**
+     * Make a solver for the given board, listening to the board for changes.
+     * If cells are already revealed, the board is scanned once to find them,
+     * after that only changed cells are looked at.
+     */
+    public static Solver watch(Board board) {
+        Solver solver = new Solver(board);
+        board.addListener(solver);
+        return solver;
+    }
+
+    // Use watch(), which registers the solver on the board once it is made.
+    private Solver(Board board) {
+        this.board = board;
+        this.numRows = board.getNumRows();
+        this.numCols = board.getNumCols();
+        long n = board.getNumCells();
+        knownMines = new CellBits(n);
+        knownSafe = new CellBits(n);
+        queued = new CellBits(n);
+        if (board.getNumRevealed() > 0 && !board.isGameOver()) {
+            for (int r = 0; r < numRows; r++)
+                for (int c = 0; c < numCols; c++)
+                    if (board.isRevealed(r, c))
+                        enqueue(r, c);
+        }
+    }
+
+    /**
+     * Get the board being solved.
+     */
+    public Board getBoard() {
+        return board;
+    }
+
+    /**
+     * Returns true if the solver has deduced that a mine is in the given
+     * cell.
+     */
+    public boolean isKnownMine(int row, int col) {
+        return knownMines.get((long)row * numCols + col);
+    }
+
+    /**
+     * Returns true if the solver has deduced that the given cell is safe. This
+     * stays true after the cell is revealed.
+     */
+    public boolean isKnownSafe(int row, int col) {
+        return knownSafe.get((long)row * numCols + col);
+    }
+
+    /**
+     * Get the number of mines the solver has found.
+     */
+    public long getNumKnownMines() {
+        return knownMines.size();
+    }
+
+    /**
+     * Run deductions until nothing more can be found from the cells that
+     * have changed.
+     * @return true if any new safe cell or mine was found.
+     */
+    public boolean solve() {
+        long before = knownMines.size() + knownSafe.size();
+        long cell;
+        while ((cell = work.poll()) != -1) {
+            int r = CellQueue.rowOf(cell);
+            int c = CellQueue.colOf(cell);
+            queued.clear((long)r * numCols + c);
+            examine(r, c);
+        }
+        return knownMines.size() + knownSafe.size() != before;
+    }
+
+    /**
+     * Take the next cell found to be safe that is still hidden, packed as in
+     * CellQueue.pack(), or return -1 if there are none.
+     */
+    public long pollSafe() {
+        long cell;
+        while ((cell = newSafe.poll()) != -1) {
+            if (!board.isRevealed(CellQueue.rowOf(cell), CellQueue.colOf(cell)))
+                return cell;
+        }
+        return -1;
+    }
+
+    /**
+     * Take the next cell found to hold a mine, packed as in CellQueue.pack(),
+     * or return -1 if there are none.
+     */
+    public long pollMine() {
+        return newMines.poll();
+    }
+
+    /**
+     * Re-examine the numbers around a cell that was revealed. This is called
+     * by the board.
+     */
+    public void cellChanged(int row, int col) {
+        if (board.isRevealed(row, col))
+            enqueueAround(row, col);
+    }
+
+    /**
+     * Nothing to do when the whole board is revealed, the game is over.
+     */
+    public void boardChanged() {
+    }
+
+    /**
+     * Stop working when the game is over.
+     */
+    public void gameOver(boolean won) {
+        work.clear();
+    }
+
+    // Apply the single cell and subset deductions to the number at (r, c).
+    private void examine(int r, int c) {
+        if (!board.isRevealed(r, c) || board.isMine(r, c))
+            return;
+        long a = unknownMask(r, c, r, c);
+        if (a == 0)
+            return;
+        int minesA = board.getNeighborMineCount(r, c) - knownMinesAround(r, c);
+        int sizeA = Long.bitCount(a);
+        if (minesA == 0) {
+            markAll(a, r, c, false);
+            return;
+        }
+        if (minesA == sizeA) {
+            markAll(a, r, c, true);
+            return;
+        }
+
+        for (int br = r-2; br <= r+2; br++) {
+            if (br < 0 || br >= numRows)
+                continue;
+            for (int bc = c-2; bc <= c+2; bc++) {
+                if (bc < 0 || bc >= numCols || (br == r && bc == c))
+                    continue;
+                if (!board.isRevealed(br, bc) || board.isMine(br, bc))
+                    continue;
+                long b = unknownMask(br, bc, r, c);
+                if (b == 0 || b == a)
+                    continue;
+                int minesB = board.getNeighborMineCount(br, bc) - knownMinesAround(br, bc);
+                long diff;
+                int diffMines;
+                if ((a & ~b) == 0) {
+                    diff = b & ~a;
+                    diffMines = minesB - minesA;
+                } else if ((b & ~a) == 0) {
+                    diff = a & ~b;
+                    diffMines = minesA - minesB;
+                } else {
+                    continue;
+                }
+                // Marking cells re-queues this number, so stop after one
+                // deduction and let it be examined again with fresh masks.
+                if (diffMines == 0) {
+                    markAll(diff, r, c, false);
+                    return;
+                }
+                if (diffMines == Long.bitCount(diff)) {
+                    markAll(diff, r, c, true);
+                    return;
+                }
+            }
+        }
+    }
+
+    // Bitmask of the hidden neighbors of (r, c) that are not yet known to be
+    // safe or mines, in the window centered on (fr, fc).
+    private long unknownMask(int r, int c, int fr, int fc) {
+        long mask = 0;
+        for (int nr = r-1; nr <= r+1; nr++) {
+            if (nr < 0 || nr >= numRows)
+                continue;
+            for (int nc = c-1; nc <= c+1; nc++) {
+                if (nc < 0 || nc >= numCols || (nr == r && nc == c))
+                    continue;
+                long i = (long)nr * numCols + nc;
+                if (board.isRevealed(nr, nc) || knownMines.get(i) || knownSafe.get(i))
+                    continue;
+                mask |= 1L << ((nr - fr + HALF) * WINDOW + (nc - fc + HALF));
+            }
+        }
+        return mask;
+    }
+
+    // Number of neighbors of (r, c) known to hold mines.
+    private int knownMinesAround(int r, int c) {
+        int n = 0;
+        for (int nr = r-1; nr <= r+1; nr++) {
+            if (nr < 0 || nr >= numRows)
+                continue;
+            for (int nc = c-1; nc <= c+1; nc++) {
+                if (nc < 0 || nc >= numCols || (nr == r && nc == c))
+                    continue;
+                if (knownMines.get((long)nr * numCols + nc))
+                    n++;
+            }
+        }
+        return n;
+    }
+
+    // Mark every cell in a window mask centered on (fr, fc) as a mine or safe.
+    private void markAll(long mask, int fr, int fc, boolean mine) {
+        while (mask != 0) {
+            int bit = Long.numberOfTrailingZeros(mask);
+            mask &= mask - 1;
+            int r = fr + bit / WINDOW - HALF;
+            int c = fc + bit % WINDOW - HALF;
+            long i = (long)r * numCols + c;
+            if (mine) {
+                if (knownMines.set(i))
+                    newMines.add(r, c);
+            } else {
+                if (knownSafe.set(i))
+                    newSafe.add(r, c);
+            }
+            enqueueAround(r, c);
+        }
+    }
+
+    // Queue the revealed numbers in the 3x3 block around (r, c).
+    private void enqueueAround(int r, int c) {
+        for (int nr = r-1; nr <= r+1; nr++) {
+            if (nr < 0 || nr >= numRows)
+                continue;
+            for (int nc = c-1; nc <= c+1; nc++) {
+                if (nc >= 0 && nc < numCols && board.isRevealed(nr, nc))
+                    enqueue(nr, nc);
+            }
+        }
+    }
+
+    // Queue the number at (r, c) if it isn't queued already.
+    private void enqueue(int r, int c) {
+        if (queued.set((long)r * numCols + c))
+            work.add(r, c);
+    }
+}
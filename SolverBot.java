@@ -0,0 +1,131 @@
+/*----------------------------------------------------------------
+ *  Author:   Kayleigh Crosby
+ *  Email:    kacros23@g.holycross.edu
+ *  Written:  10/17/2026
+ *
+ *  SolverBot plays using the Solver's deductions, and guesses
+ *  the safest cell when there are none.
+ *----------------------------------------------------------------*/
+
+import java.util.concurrent.TimeoutException;
+import java.util.random.RandomGenerator;
+
+/**
+ * A <i>SolverBot</i> is the default Bot. It reveals every cell the Solver
+ * can prove safe. When the solver is stuck, it asks a ProbabilityEngine for
+ * the cell least likely to hold a mine, and if any component of the frontier
+ * takes more than its step limit, it guesses a random hidden cell instead.
+ * The limit is in backtracking steps rather than time, so a bot plays the same
+ * game from the same seed on any machine. The first move is a random cell.
+ */
+public class SolverBot implements Bot {
+
+    /**
+     * Default limit on the backtracking steps for any one component of the
+     * frontier.
+     */
+    public static final long DEFAULT_MAX_STEPS = 1L << 20;
+
+    // Kept between games, so its cache of component counts is reused.
+    private final ProbabilityEngine engine;
+
+    // The current game.
+    private Board board;
+    private Solver solver;
+    private int numMines;
+    private RandomGenerator rng;
+    private int numGuesses;
+
+    /**
+     * Initialize a bot with the default step limit.
+     */
+    public SolverBot() {
+        this(DEFAULT_MAX_STEPS);
+    }
+
+    /**
+     * Initialize a bot that gives up on computing probabilities when a
+     * component takes more than the given number of backtracking steps, and
+     * guesses at random instead.
+     */
+    public SolverBot(long maxSteps) {
+        this.engine = new ProbabilityEngine(maxSteps);
+    }
+
+    /**
+     * Start a new game, with a fresh Solver listening to the board.
+     */
+    public void newGame(Board board, int numMines, RandomGenerator rng) {
+        if (this.board != null)
+            this.board.removeListener(solver);
+        this.board = board;
+        this.solver = Solver.watch(board);
+        this.numMines = numMines;
+        this.rng = rng;
+        this.numGuesses = 0;
+    }
+
+    /**
+     * Reveal a cell the solver has proved safe, or else the safest guess.
+     */
+    public long nextMove() {
+        solver.solve();
+        long cell = solver.pollSafe();
+        if (cell != -1)
+            return cell;
+
+        numGuesses++;
+        if (board.getNumRevealed() > 0) {
+            try {
+                cell = engine.compute(board, numMines, Long.MAX_VALUE).getSafestCell();
+                if (cell != -1)
+                    return cell;
+            } catch (TimeoutException e) {
+                // Too slow, fall back to a random guess.
+            }
+        }
+        return randomHiddenCell();
+    }
+
+    /**
+     * Get the number of moves in the current game that were guesses.
+     */
+    public int getNumGuesses() {
+        return numGuesses;
+    }
+
+    // Pick a hidden cell not known to be a mine, uniformly at random. If
+    // every hidden cell is a known mine, pick any hidden cell.
+    private long randomHiddenCell() {
+        int rows = board.getNumRows();
+        int cols = board.getNumCols();
+        long hidden = board.getNumCells() - board.getNumRevealed();
+        // Rejection sampling is fast while a fair share of cells is hidden,
+        // after that scan the few that are left.
+        if (hidden * 8 >= board.getNumCells()) {
+            while (true) {
+                int r = rng.nextInt(rows);
+                int c = rng.nextInt(cols);
+                if (!board.isRevealed(r, c) && !solver.isKnownMine(r, c))
+                    return CellQueue.pack(r, c);
+            }
+        }
+        long choices = 0, any = -1;
+        for (int r = 0; r < rows; r++)
+            for (int c = 0; c < cols; c++)
+                if (!board.isRevealed(r, c) && !solver.isKnownMine(r, c))
+                    choices++;
+        long k = choices > 0 ? rng.nextLong(choices) : 0;
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                if (board.isRevealed(r, c))
+                    continue;
+                if (any == -1)
+                    any = CellQueue.pack(r, c);
+                if (!solver.isKnownMine(r, c) && k-- == 0)
+                    return CellQueue.pack(r, c);
+            }
+        }
+        return any;
+    }
+}
@@ -29,6 +29,12 @@ public class StatusBox extends Widget {
     // The game for which this box will show statistics.
     private Game game;
 
+    // The numbers last drawn, and their text. The text is only rebuilt when
+    // a number changes.
+    private int shownMines = -1;
+    private long shownRemaining = -1;
+    private String minesText, remainingText;
+
     /**
      * Initialize a new status box for the given game.
      * @param g the game for which this box will show statistics.
@@ -62,18 +68,29 @@ public class StatusBox extends Widget {
         canvas.text(x + 40, y + 15, "Mines");
         canvas.text(x + 160, y + 15, "Cells");
 
+        int mines = game.getNumMinesDeployed();
+        long remaining = game.getNumCellsRemaining();
+        if (mines != shownMines) {
+            shownMines = mines;
+            minesText = "" + mines;
+        }
+        if (remaining != shownRemaining) {
+            shownRemaining = remaining;
+            remainingText = "" + remaining;
+        }
+
         // Draw the number of mines in large blue bold font.
         canvas.setFont(Canvas.BOLD_FONT);
         canvas.setFont(24);
         canvas.setPenColor(Canvas.DARK_BLUE);
-        canvas.text(x+40, y+45, "" + game.getNumMinesDeployed());
+        canvas.text(x+40, y+45, minesText);
 
         // Draw the number of remaining cells in large blue or green font.
-        if (game.getNumCellsRemaining() > game.getNumMinesDeployed())
+        if (remaining > mines)
             canvas.setPenColor(Canvas.DARK_BLUE);
         else 
             canvas.setPenColor(Canvas.DARK_GREEN);
-        canvas.text(x+160, y+45, "" + game.getNumCellsRemaining());
+        canvas.text(x+160, y+45, remainingText);
     }
 
 }
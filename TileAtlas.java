@@ -0,0 +1,230 @@
+/*----------------------------------------------------------------
+ *  Author:   Kayleigh Crosby
+ *  Email:    kacros23@g.holycross.edu
+ *  Written:  10/17/2026
+ *
+ *  TileAtlas draws every look a cell can have once, so cells can
+ *  be painted by copying a ready-made image.
+ *----------------------------------------------------------------*/
+
+import GUI.*;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import javax.imageio.ImageIO;
+
+/**
+ * The <i>TileAtlas</i> class holds pre-drawn images ("tiles") of every
+ * distinct way a cell can look: hidden, flagged, a revealed mine, or revealed
+ * with 0 to 8 neighboring mines. The tiles for a cell size are all drawn the
+ * first time that size is asked for, and kept from then on. The default size,
+ * Cell.SIZE, is drawn when the class is loaded. After that, getting a tile
+ * doesn't allocate anything, and painting a cell is a single image copy.
+ *
+ * The GUI package's Canvas draws pictures from files, so each tile is also
+ * written once to a PNG file in a temporary directory, see tileFile(). The
+ * files are deleted when the program exits.
+ */
+public class TileAtlas {
+
+    /**
+     * Tile kinds 0 to 8 are revealed cells with that many neighboring mines.
+     */
+    public static final int MAX_COUNT = 8;
+
+    /**
+     * Tile kind for a cell that has not been revealed.
+     */
+    public static final int HIDDEN = 9;
+
+    /**
+     * Tile kind for a cell with a flag planted on it.
+     */
+    public static final int FLAG = 10;
+
+    /**
+     * Tile kind for a revealed mine.
+     */
+    public static final int MINE = 11;
+
+    /**
+     * Number of different tile kinds.
+     */
+    public static final int NUM_KINDS = 12;
+
+    /**
+     * Largest cell size, in pixels, that tiles can be drawn for.
+     */
+    public static final int MAX_SIZE = 64;
+
+    // Colors of the numbers 1 to 8 drawn on revealed cells.
+    private static final Color[] NUMBER_COLORS = {
+        null, Canvas.DARK_GREEN, Canvas.BLUE, Canvas.MAGENTA, Canvas.RED,
+        Canvas.BLACK, Canvas.ORANGE, Canvas.YELLOW, Canvas.GRAY
+    };
+
+    // tiles[size][kind] is the tile for that kind of cell at that size, or
+    // tiles[size] is null if that size hasn't been drawn yet.
+    private static final BufferedImage[][] tiles = new BufferedImage[MAX_SIZE + 1][];
+
+    // files[size][kind] is the file holding that tile, or files[size] is null
+    // if that size hasn't been written yet, and the directory they are in.
+    private static final String[][] files = new String[MAX_SIZE + 1][];
+    private static File directory;
+
+    static {
+        tilesFor(Cell.SIZE);
+    }
+
+    // No TileAtlas objects, only the static methods.
+    private TileAtlas() {
+    }
+
+    /**
+     * Get the tile for the given kind of cell at the given size.
+     * @param kind the kind of tile, 0 to 8, HIDDEN, FLAG, or MINE.
+     * @param size the width and height of the cell, in pixels.
+     * @return an image, size pixels square.
+     */
+    public static BufferedImage tile(int kind, int size) {
+        return tilesFor(size)[kind];
+    }
+
+    /**
+     * Get the name of a PNG file holding the tile for the given kind of cell
+     * at the given size, for Canvas.picture(). The tiles for a size are
+     * written the first time any of them is asked for.
+     * @param kind the kind of tile, 0 to 8, HIDDEN, FLAG, or MINE.
+     * @param size the width and height of the cell, in pixels.
+     * @throws UncheckedIOException if the files can't be written.
+     */
+    public static String tileFile(int kind, int size) {
+        if (size < 1 || size > MAX_SIZE)
+            throw new IllegalArgumentException("no tiles for cells of size " + size);
+        String[] f = files[size];
+        if (f == null)
+            f = files[size] = writeTiles(size);
+        return f[kind];
+    }
+
+    /**
+     * Get the kind of tile that shows cell (row, col) of a board.
+     */
+    public static int kindOf(Board board, int row, int col) {
+        if (board.isFlag(row, col))
+            return FLAG;
+        if (!board.isRevealed(row, col))
+            return HIDDEN;
+        if (board.isMine(row, col))
+            return MINE;
+        return board.getNeighborMineCount(row, col);
+    }
+
+    // Get all of the tiles for one size, drawing them if needed.
+    private static BufferedImage[] tilesFor(int size) {
+        if (size < 1 || size > MAX_SIZE)
+            throw new IllegalArgumentException("no tiles for cells of size " + size);
+        BufferedImage[] t = tiles[size];
+        if (t == null)
+            t = tiles[size] = drawTiles(size);
+        return t;
+    }
+
+    // Write every kind of tile at one size to its own file.
+    private static String[] writeTiles(int size) {
+        BufferedImage[] t = tilesFor(size);
+        String[] f = new String[NUM_KINDS];
+        try {
+            if (directory == null) {
+                directory = Files.createTempDirectory("minesweeper-tiles").toFile();
+                directory.deleteOnExit();
+            }
+            for (int kind = 0; kind < NUM_KINDS; kind++) {
+                File file = new File(directory, "tile-" + size + "-" + kind + ".png");
+                file.deleteOnExit();
+                ImageIO.write(t[kind], "png", file);
+                f[kind] = file.getPath();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("can't write the cell tiles", e);
+        }
+        return f;
+    }
+
+    // Draw every kind of tile at one size.
+    private static BufferedImage[] drawTiles(int size) {
+        BufferedImage[] t = new BufferedImage[NUM_KINDS];
+        int bevel = Math.max(1, size/5);
+        Font font = new Font("Arial", Font.BOLD, Math.max(1, (int)(size*0.9)));
+        Image poop = loadPicture("poop.png");
+        Image flag = loadPicture("flag.png");
+
+        for (int kind = 0; kind < NUM_KINDS; kind++) {
+            t[kind] = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = t[kind].createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+                               RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            if (kind == HIDDEN) {
+                bevelRectangle(g, Canvas.DARK_GRAY, size, bevel, true);
+            } else if (kind == FLAG) {
+                g.setColor(Canvas.DARK_GRAY);
+                g.fillRect(0, 0, size, size);
+                drawPicture(g, flag, size);
+            } else if (kind == MINE) {
+                g.setColor(Canvas.RED);
+                g.fillRect(0, 0, size, size);
+                drawPicture(g, poop, size);
+            } else {
+                bevelRectangle(g, Canvas.LIGHT_GRAY, size, bevel, false);
+                if (kind > 0) {
+                    g.setColor(NUMBER_COLORS[kind]);
+                    g.setFont(font);
+                    FontMetrics fm = g.getFontMetrics();
+                    String s = Integer.toString(kind);
+                    g.drawString(s, (size - fm.stringWidth(s))/2,
+                                 (size - fm.getHeight())/2 + fm.getAscent());
+                }
+            }
+            g.dispose();
+        }
+        return t;
+    }
+
+    // Draw a filled square with a 3D bevel around its edges, raised or sunken.
+    private static void bevelRectangle(Graphics2D g, Color color, int size, int bevel, boolean raised) {
+        g.setColor(color);
+        g.fillRect(0, 0, size, size);
+        int[] xs = { 0, size, size-bevel, bevel, bevel, 0 };
+        int[] ys = { 0, 0, bevel, bevel, size-bevel, size };
+        g.setColor(raised ? color.brighter() : color.darker());
+        g.fillPolygon(xs, ys, 6); // top and left edges
+        int[] xs2 = { size, size, 0, bevel, size-bevel, size-bevel };
+        int[] ys2 = { 0, size, size, size-bevel, size-bevel, bevel };
+        g.setColor(raised ? color.darker() : color.brighter());
+        g.fillPolygon(xs2, ys2, 6); // bottom and right edges
+    }
+
+    // Draw a picture centered in a tile, one pixel in from the edges.
+    private static void drawPicture(Graphics2D g, Image picture, int size) {
+        if (picture != null)
+            g.drawImage(picture, 1, 1, size-2, size-2, null);
+    }
+
+    // Load a picture, or return null if it can't be read.
+    private static Image loadPicture(String filename) {
+        try {
+            return ImageIO.read(new File(filename));
+        } catch (IOException e) {
+            System.out.println("Can't load " + filename + ": " + e.getMessage());
+            return null;
+        }
+    }
+}
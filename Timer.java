@@ -34,6 +34,11 @@ public class Timer extends GUI.Widget {
     // Number of seconds elapsed so far.
     private double elapsedSeconds;
 
+    // The number of seconds last drawn, and its text. The text is only
+    // rebuilt when the second changes.
+    private int shownSeconds = -1;
+    private String shownText;
+
     /**
      * Initialize a new timer.
      * @param x the x coordinate of the location to draw the timer.
@@ -120,8 +125,11 @@ public class Timer extends GUI.Widget {
         canvas.setFont(24);
         canvas.setPenColor(Canvas.DARK_RED);
         int n = getElapsedSeconds();
-        String s = "" + n; // could also use String.format("%d", n)
-        canvas.text(x + 75, y + 45, s);
+        if (n != shownSeconds) {
+            shownSeconds = n;
+            shownText = "" + n; // could also use String.format("%d", n)
+        }
+        canvas.text(x + 75, y + 45, shownText);
     	// startCounting(); 
         
         
@@ -24,11 +24,14 @@ import GUI.*;
 public class TitleScreen extends Window implements EventListener {
 
   // The user's choice. Uses "quit" as the default if nothing else is chosen.
-  // Possible values are "quit", "easy", "medium", and "hard".
+  // Possible values are "quit", "easy", "medium", "hard", and "restore".
   private String selection = "quit";
 
   // Buttons for the different options.
-  private Button easy, okay, hard, quit, save, restore;
+  private Button easy, okay, hard, quit, restore;
+
+  // Whether there is a saved game to restore.
+  private boolean canRestore;
 
   /**
      * Initialize a new title screen. 
@@ -42,9 +45,9 @@ public class TitleScreen extends Window implements EventListener {
     easy = new Button(280, 120, 160, 40, "1 - Easy");
     okay = new Button(280, 170, 160, 40, "2 - Medium");
     hard = new Button(280, 220, 160, 40, "3 - Hard");
-    quit = new Button(280, 300, 160, 40, "Q - Quit");
-    // save = new Button(280, 350, 160, 40, "S - Save"); 
-    //  restore = new Button(280, 400, 160, 40, "R - Restore"); 
+    restore = new Button(280, 270, 160, 40, "R - Restore");
+    quit = new Button(280, 320, 160, 40, "Q - Quit");
+    canRestore = SaveGame.exists(SaveGame.DEFAULT_FILE);
     easy.setForegroundColor(Canvas.WHITE);
     easy.setBackgroundColor(Canvas.GREEN.darker());
     easy.setBorderColor(null);
@@ -61,16 +64,17 @@ public class TitleScreen extends Window implements EventListener {
     quit.setBackgroundColor(Canvas.RED.darker());
     quit.setBorderColor(null);
 
-    /*  save.setForegroundColor(Canvas.WHITE);
-    save.setBackgroundColor(Canvas.GRAY.darker());
-    save.setBorderColor(null);*/ 
+    restore.setForegroundColor(Canvas.WHITE);
+    restore.setBackgroundColor(Canvas.GRAY.darker());
+    restore.setBorderColor(null);
 
     add(easy);
     add(okay);
     add(hard);
     add(quit);
-    // add(save); 
-    //  add(restore); 
+    // only offer to restore if there is a saved game 
+    if (canRestore)
+      add(restore);
 
     // Add a title at the top
     Label title = new Label(300, 70, "Minesweeper!");
@@ -143,6 +147,9 @@ public class TitleScreen extends Window implements EventListener {
     } else if (c == '3') {
       selection = "hard";
       hide();
+    } else if ((c == 'r' || c == 'R') && canRestore) {
+      selection = "restore";
+      hide();
     } else if (c == 'q' || c == 'Q') {
       selection = "quit";
       hide();
@@ -170,6 +177,9 @@ public class TitleScreen extends Window implements EventListener {
       } else if (hard.containsPoint(x, y)) {
         selection = "hard";
         hide();
+      } else if (canRestore && restore.containsPoint(x, y)) {
+        selection = "restore";
+        hide();
       } else if (quit.containsPoint(x, y)) {
         selection = "quit";
         hide();